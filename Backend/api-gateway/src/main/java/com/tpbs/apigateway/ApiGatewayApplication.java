@@ -94,7 +94,7 @@ public class ApiGatewayApplication {
         ));
         
         // Allow common HTTP methods
-        corsConfig.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        corsConfig.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         
         // Allow specific headers instead of wildcard
         corsConfig.setAllowedHeaders(Arrays.asList(
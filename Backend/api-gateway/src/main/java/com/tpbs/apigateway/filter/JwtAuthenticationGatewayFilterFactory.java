@@ -24,6 +24,11 @@ public class JwtAuthenticationGatewayFilterFactory extends AbstractGatewayFilter
         return (exchange, chain) -> {
             String path = exchange.getRequest().getURI().getPath();
             
+            // Services call each other directly; the marker for those calls never comes from outside
+            exchange = exchange.mutate()
+                    .request(exchange.getRequest().mutate().headers(h -> h.remove("X-Service-Call")).build())
+                    .build();
+            
             // Skip authentication for public paths
             if (path.startsWith("/api/auth/")) {
                 log.info("Public path: {}", path);
@@ -1,6 +1,7 @@
 package com.tpbs.assistanceservice.service.impl;
 
 import com.tpbs.assistanceservice.client.BookingServiceClient;
+import com.tpbs.common.client.UserReplica;
 import com.tpbs.assistanceservice.client.UserServiceClient;
 import com.tpbs.assistanceservice.dto.AssistanceRequestDto;
 import com.tpbs.assistanceservice.model.AssistanceRequest;
@@ -24,9 +25,14 @@ import java.util.stream.Collectors;
 public class AssistanceRequestServiceImpl implements AssistanceRequestService {
     private final AssistanceRequestRepository repository;
     private final UserServiceClient userServiceClient;
+    private final UserReplica userReplica;
     private final BookingServiceClient bookingServiceClient;    // Enhanced method to get user details via Feign client
     @SuppressWarnings("unchecked")
     private Map<String, Object> getUserDetails(Long userId) {
+        Map<String, Object> replicated = userReplica.get(userId).orElse(null);
+        if (replicated != null) {
+            return replicated;
+        }
         try {
             ResponseEntity<Map<String, Object>> response = userServiceClient.getUserById(userId);
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
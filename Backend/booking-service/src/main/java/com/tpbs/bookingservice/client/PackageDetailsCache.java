@@ -0,0 +1,156 @@
+package com.tpbs.bookingservice.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Package details for booking pages, fetched in bulk. Distinct ids not cached (or
+ * cached longer than {@code bookings.package-cache.ttl-seconds}) are requested from
+ * package-service's batch endpoint in concurrent chunks, so a page costs at most one
+ * round trip no matter how many bookings it shows. If a chunk fails or times out,
+ * expired entries are served instead and ids with nothing cached are left out, so
+ * one slow call degrades a page instead of failing it.
+ */
+@Slf4j
+@Component
+public class PackageDetailsCache {
+
+    // Null details: package-service does not know the id (e.g. deleted package)
+    private record Entry(Map<String, Object> details, long loadedAt) {
+    }
+
+    private final PackageServiceClient packageServiceClient;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final int batchSize;
+    private final long timeoutMillis;
+    private final ExecutorService executor;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public PackageDetailsCache(PackageServiceClient packageServiceClient,
+                               @Value("${bookings.package-cache.ttl-seconds:30}") long ttlSeconds,
+                               @Value("${bookings.package-cache.max-entries:5000}") int maxEntries,
+                               @Value("${bookings.package-cache.batch-size:200}") int batchSize,
+                               @Value("${bookings.package-cache.timeout-millis:2000}") long timeoutMillis,
+                               @Value("${bookings.package-cache.threads:4}") int threads) {
+        this.packageServiceClient = packageServiceClient;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.batchSize = batchSize;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "package-details-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Details of every package that could be resolved, keyed by package id. */
+    public Map<Long, Map<String, Object>> getAll(Collection<Long> packageIds) {
+        Map<Long, Map<String, Object>> found = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        long now = System.nanoTime();
+        for (Long packageId : packageIds) {
+            if (packageId == null || found.containsKey(packageId) || missing.contains(packageId)) {
+                continue;
+            }
+            Entry entry = entries.get(packageId);
+            if (entry != null && now - entry.loadedAt() < ttlNanos) {
+                if (entry.details() != null) {
+                    found.put(packageId, entry.details());
+                }
+            } else {
+                missing.add(packageId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        List<Long> ids = new ArrayList<>(missing);
+        List<CompletableFuture<Map<Long, Map<String, Object>>>> fetches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            List<Long> chunk = ids.subList(i, Math.min(ids.size(), i + batchSize));
+            fetches.add(CompletableFuture.supplyAsync(() -> fetch(chunk), executor)
+                    .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                    .exceptionally(e -> {
+                        log.warn("Package lookup of {} ids failed, serving cached details: {}", chunk.size(), e.getMessage());
+                        return Map.of();
+                    }));
+        }
+        Map<Long, Map<String, Object>> fetched = new HashMap<>();
+        fetches.forEach(f -> fetched.putAll(f.join()));
+        store(fetched);
+
+        for (Long packageId : missing) {
+            Map<String, Object> details;
+            if (fetched.containsKey(packageId)) {
+                details = fetched.get(packageId);
+            } else {
+                // Lookup failed: an expired entry beats no details at all
+                Entry stale = entries.get(packageId);
+                details = stale != null ? stale.details() : null;
+            }
+            if (details != null) {
+                found.put(packageId, details);
+            }
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Map<String, Object>> fetch(List<Long> packageIds) {
+        ResponseEntity<Map<String, Object>> response = packageServiceClient.getPackagesByIds(packageIds);
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null
+                || !(response.getBody().get("data") instanceof Map<?, ?> data)) {
+            throw new IllegalStateException("package-service returned " + response.getStatusCode());
+        }
+        Map<Long, Map<String, Object>> byId = new HashMap<>();
+        for (Long packageId : packageIds) {
+            // "data" keys are package ids as strings; unknown ids are omitted
+            byId.put(packageId, (Map<String, Object>) data.get(String.valueOf(packageId)));
+        }
+        return byId;
+    }
+
+    private void store(Map<Long, Map<String, Object>> fetched) {
+        if (entries.size() + fetched.size() > maxEntries) {
+            evictExpired();
+        }
+        long now = System.nanoTime();
+        fetched.forEach((packageId, details) -> {
+            if (entries.size() < maxEntries || entries.containsKey(packageId)) {
+                entries.put(packageId, new Entry(details, now));
+            }
+        });
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.loadedAt() >= ttlNanos);
+    }
+}
@@ -0,0 +1,72 @@
+package com.tpbs.bookingservice.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reports departures' sold share to package-service, where OCCUPANCY pricing rules
+ * use it. Called after commit; reports are sent off the request thread and only the
+ * latest share per departure is kept, so a burst of bookings sends one update.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PackageOccupancyNotifier {
+
+    private record Departure(Long packageId, LocalDate startDate) {
+    }
+
+    private final PackageServiceClient packageServiceClient;
+
+    private final Map<Departure, BigDecimal> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "package-occupancy-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    public void occupancyChanged(Long packageId, LocalDate startDate, int capacity, int remaining) {
+        BigDecimal share = capacity == 0 ? BigDecimal.ONE
+                : BigDecimal.valueOf(capacity - remaining).divide(BigDecimal.valueOf(capacity), 4, RoundingMode.HALF_UP);
+        pending.put(new Departure(packageId, startDate), share);
+        if (scheduled.compareAndSet(false, true)) {
+            sender.execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        scheduled.set(false);
+        for (Departure departure : new ArrayList<>(pending.keySet())) {
+            BigDecimal share = pending.remove(departure);
+            if (share == null) {
+                continue;
+            }
+            try {
+                packageServiceClient.updateOccupancy(departure.packageId(), Map.of(
+                        "departureDate", departure.startDate().toString(),
+                        "occupancy", share.toPlainString()), "internal");
+            } catch (Exception e) {
+                log.warn("Could not report occupancy of package {} on {}: {}",
+                        departure.packageId(), departure.startDate(), e.getMessage());
+            }
+        }
+    }
+}
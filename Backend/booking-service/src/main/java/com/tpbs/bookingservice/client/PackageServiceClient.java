@@ -4,18 +4,46 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "package-service", url = "${feign.clients.package-service.url:http://localhost:8082}")
 public interface PackageServiceClient {
     
-    @GetMapping("/api/packages/{id}")
+    // Marked internal so package-service does not count it as a customer view
+    @GetMapping(value = "/api/packages/{id}", headers = "X-Service-Call=internal")
     ResponseEntity<Map<String, Object>> getPackageById(@PathVariable("id") Long id);
     
+    // "data" maps package id (as a string key) to package; unknown ids are omitted
+    @PostMapping("/api/packages/batch")
+    ResponseEntity<Map<String, Object>> getPackagesByIds(@RequestBody List<Long> ids);
+    
     @GetMapping("/api/packages/agent/{agentId}")
     ResponseEntity<Map<String, Object>> getPackagesByAgent(@PathVariable("agentId") Long agentId);
     
     @GetMapping("/api/packages")
     ResponseEntity<Map<String, Object>> getAllPackages();
+    
+    @PostMapping("/api/packages/{id}/booking-signal")
+    ResponseEntity<Map<String, Object>> recordBookingSignal(
+        @PathVariable("id") Long id,
+        @RequestHeader("X-Service-Call") String serviceCall
+    );
+    
+    // Rows of { packageId, bookingCount, confirmedCount } replacing the package summaries' booking totals
+    @PutMapping(value = "/api/packages/summaries/bookings", headers = "X-Service-Call=internal")
+    ResponseEntity<Map<String, Object>> updateBookingStats(@RequestBody List<Map<String, Object>> stats);
+    
+    // { "departureDate": "YYYY-MM-DD", "occupancy": "0..1" } for OCCUPANCY pricing rules
+    @PutMapping("/api/packages/{id}/occupancy")
+    ResponseEntity<Map<String, Object>> updateOccupancy(
+        @PathVariable("id") Long id,
+        @RequestBody Map<String, String> body,
+        @RequestHeader("X-Service-Call") String serviceCall
+    );
 }
@@ -0,0 +1,82 @@
+package com.tpbs.bookingservice.client;
+
+import com.tpbs.bookingservice.repository.BookingRepository;
+import com.tpbs.common.client.CoalescingNotifier;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the booking totals of package-service's package summaries current. Changed
+ * package ids are collected after commit and, off the request thread, recounted from
+ * the bookings table and sent as absolute totals, so repeated or reordered reports are
+ * harmless. Reports that fail while package-service is unavailable are retried with
+ * backoff, as is the full resend at startup.
+ */
+@Component
+public class PackageSummaryNotifier {
+
+    private static final int BATCH_SIZE = 500;
+    private static final long RETRY_INITIAL_MILLIS = 1_000;
+    private static final long RETRY_MAX_MILLIS = 60_000;
+
+    private final PackageServiceClient packageServiceClient;
+    private final BookingRepository bookingRepository;
+    private final CoalescingNotifier<Long> notifier;
+
+    public PackageSummaryNotifier(PackageServiceClient packageServiceClient, BookingRepository bookingRepository) {
+        this.packageServiceClient = packageServiceClient;
+        this.bookingRepository = bookingRepository;
+        this.notifier = new CoalescingNotifier<>("package-summary-notifier",
+                packageIds -> send(toRows(bookingRepository.summarizeByPackageIds(packageIds), packageIds)),
+                RETRY_INITIAL_MILLIS, RETRY_MAX_MILLIS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sendAll() {
+        notifier.runWithRetry(() -> send(toRows(bookingRepository.summarizeByPackage(), List.of())));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdown();
+    }
+
+    public void bookingsChanged(Long packageId) {
+        notifier.changed(packageId);
+    }
+
+    // Packages that no longer have bookings are reported with zero totals
+    private static List<Map<String, Object>> toRows(List<Object[]> summaries, List<Long> packageIds) {
+        Map<Long, Map<String, Object>> rows = new LinkedHashMap<>();
+        for (Long packageId : packageIds) {
+            rows.put(packageId, row(packageId, 0, 0));
+        }
+        for (Object[] summary : summaries) {
+            Long packageId = (Long) summary[0];
+            rows.put(packageId, row(packageId, (Long) summary[1], ((Number) summary[2]).longValue()));
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    private static Map<String, Object> row(Long packageId, long bookingCount, long confirmedCount) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("packageId", packageId);
+        row.put("bookingCount", bookingCount);
+        row.put("confirmedCount", confirmedCount);
+        return row;
+    }
+
+    private void send(List<Map<String, Object>> rows) {
+        for (int i = 0; i < rows.size(); i += BATCH_SIZE) {
+            packageServiceClient.updateBookingStats(rows.subList(i, Math.min(rows.size(), i + BATCH_SIZE)));
+        }
+    }
+}
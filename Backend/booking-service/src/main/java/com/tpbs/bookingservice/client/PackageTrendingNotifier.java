@@ -0,0 +1,43 @@
+package com.tpbs.bookingservice.client;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tells package-service that a package was just booked, feeding its trending ranking.
+ * Sent after commit; a lost signal only makes the ranking slightly less accurate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PackageTrendingNotifier {
+
+    private final PackageServiceClient packageServiceClient;
+
+    public void bookingCreated(Long packageId) {
+        if (packageId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(packageId);
+                }
+            });
+        } else {
+            send(packageId);
+        }
+    }
+
+    private void send(Long packageId) {
+        try {
+            packageServiceClient.recordBookingSignal(packageId, "internal");
+        } catch (Exception e) {
+            log.warn("Could not report booking of package {}: {}", packageId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.tpbs.bookingservice.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.util.Map;
+
+@FeignClient(name = "payment-service", url = "${feign.clients.payment-service.url:http://localhost:8084}")
+public interface PaymentServiceClient {
+    
+    @GetMapping("/api/payments/revenue-by-booking")
+    ResponseEntity<Map<String, Object>> getRevenueByBooking();
+}
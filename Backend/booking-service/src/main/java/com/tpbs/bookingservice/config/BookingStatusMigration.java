@@ -0,0 +1,81 @@
+package com.tpbs.bookingservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Migration for the typed booking status. Rows written while status was free-form
+ * text ("pending", "confirmed", ...) are rewritten to the enum names, the column is
+ * narrowed to VARCHAR(10) (Hibernate's schema update never shrinks a column, nor
+ * turns the native ENUM it may have created on a fresh schema back into VARCHAR), and
+ * the composite indexes declared on Booking are created if the schema update did not
+ * create them. Every step checks first, so this is a no-op on later startups. Runs
+ * before anything reads bookings through JPA.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class BookingStatusMigration {
+
+    private static final int STATUS_LENGTH = 10;
+
+    // Must match the @Index declarations on Booking
+    private static final Map<String, String> INDEXES = new LinkedHashMap<>();
+
+    static {
+        INDEXES.put("idx_bookings_user_start", "user_id, start_date");
+        INDEXES.put("idx_bookings_package_status", "package_id, status");
+        INDEXES.put("idx_bookings_status_start", "status, start_date");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        int normalized = jdbcTemplate.update(
+                "UPDATE bookings SET status = UPPER(TRIM(status)) " +
+                "WHERE BINARY status <> BINARY UPPER(TRIM(status))");
+        // Unknown statuses always held their seat, so PENDING keeps the seat counts right
+        int unknown = jdbcTemplate.update(
+                "UPDATE bookings SET status = 'PENDING' WHERE status NOT IN ('PENDING', 'CONFIRMED', 'CANCELLED')");
+        if (unknown > 0) {
+            log.warn("{} booking(s) with an unknown status set to PENDING; rebuild agent statistics to recount them",
+                    unknown);
+        }
+
+        Map<String, Object> column = jdbcTemplate.queryForMap(
+                "SELECT DATA_TYPE, CHARACTER_MAXIMUM_LENGTH FROM information_schema.columns " +
+                "WHERE table_schema = DATABASE() AND table_name = 'bookings' AND column_name = 'status'");
+        Number length = (Number) column.get("CHARACTER_MAXIMUM_LENGTH");
+        boolean narrowed = !"varchar".equalsIgnoreCase((String) column.get("DATA_TYPE"))
+                || (length != null && length.longValue() > STATUS_LENGTH);
+        if (narrowed) {
+            jdbcTemplate.execute("ALTER TABLE bookings MODIFY status VARCHAR(" + STATUS_LENGTH + ") NOT NULL");
+        }
+
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT index_name FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = 'bookings'",
+                String.class));
+        int created = 0;
+        for (Map.Entry<String, String> index : INDEXES.entrySet()) {
+            if (!existing.contains(index.getKey())) {
+                jdbcTemplate.execute("CREATE INDEX " + index.getKey() + " ON bookings (" + index.getValue() + ")");
+                created++;
+            }
+        }
+
+        log.info("Booking status migration: {} row(s) normalized, {} unknown, column narrowed: {}, {} index(es) created",
+                normalized, unknown, narrowed, created);
+    }
+}
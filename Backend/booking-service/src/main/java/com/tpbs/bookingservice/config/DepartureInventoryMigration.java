@@ -0,0 +1,36 @@
+package com.tpbs.bookingservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Makes departure_inventory.capacity nullable, so unlimited departures can have a
+ * row (Hibernate's schema update never relaxes a NOT NULL column). A no-op once the
+ * column allows nulls.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class DepartureInventoryMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        List<String> nullable = jdbcTemplate.queryForList(
+                "SELECT IS_NULLABLE FROM information_schema.columns " +
+                "WHERE table_schema = DATABASE() AND table_name = 'departure_inventory' AND column_name = 'capacity'",
+                String.class);
+        if (nullable.contains("NO")) {
+            jdbcTemplate.execute("ALTER TABLE departure_inventory MODIFY capacity INT NULL");
+            log.info("Departure inventory migration: capacity column made nullable");
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package com.tpbs.bookingservice.controller;
 
+import com.tpbs.bookingservice.dto.AgentStatsDto;
 import com.tpbs.bookingservice.dto.BookingDto;
+import com.tpbs.bookingservice.dto.DepartureInventoryDto;
+import com.tpbs.bookingservice.exception.InsufficientCapacityException;
 import com.tpbs.bookingservice.service.BookingService;
 import com.tpbs.bookingservice.util.JwtUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,6 +27,8 @@ import java.util.Map;
 @Slf4j
 public class BookingController {
     
+    private static final String CONCURRENT_CHANGE = "The booking was changed by another request; please reload and retry";
+    
     private final BookingService bookingService;
     private final JwtUtil jwtUtil;
     
@@ -77,6 +86,16 @@ public class BookingController {
         return ResponseEntity.ok(response);
     }
     
+    // Bookings for many packages in one round trip (used by package-service enrichment)
+    @PostMapping("/package/batch")
+    public ResponseEntity<Map<String, Object>> getBookingsByPackages(@RequestBody List<Long> packageIds) {
+        List<BookingDto> bookings = bookingService.getBookingsByPackages(packageIds);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", bookings);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
     @PostMapping
     public ResponseEntity<Map<String, Object>> createBooking(
             @RequestBody BookingDto bookingDto,
@@ -125,7 +144,12 @@ public class BookingController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
         
-        BookingDto createdBooking = bookingService.createBooking(bookingDto);
+        BookingDto createdBooking;
+        try {
+            createdBooking = bookingService.createBooking(bookingDto);
+        } catch (InsufficientCapacityException e) {
+            return conflict(e.getMessage());
+        }
         Map<String, Object> response = new HashMap<>();
         response.put("data", createdBooking);
         response.put("success", true);
@@ -159,7 +183,14 @@ public class BookingController {
         // Ensure userId is not changed
         bookingDto.setUserId(userId);
         
-        BookingDto updatedBooking = bookingService.updateBooking(id, bookingDto);
+        BookingDto updatedBooking;
+        try {
+            updatedBooking = bookingService.updateBooking(id, bookingDto);
+        } catch (InsufficientCapacityException e) {
+            return conflict(e.getMessage());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return conflict(CONCURRENT_CHANGE);
+        }
         Map<String, Object> response = new HashMap<>();
         response.put("data", updatedBooking);
         response.put("success", true);
@@ -219,7 +250,12 @@ public class BookingController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
         }
         
-        BookingDto cancelledBooking = bookingService.cancelBooking(id);
+        BookingDto cancelledBooking;
+        try {
+            cancelledBooking = bookingService.cancelBooking(id);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return conflict(CONCURRENT_CHANGE);
+        }
         Map<String, Object> response = new HashMap<>();
         response.put("data", cancelledBooking);
         response.put("success", true);
@@ -229,7 +265,14 @@ public class BookingController {
     @PutMapping("/{id}/confirm")
     public ResponseEntity<Map<String, Object>> confirmBooking(@PathVariable("id") Long id) {
         // This endpoint is typically for agents/admins, so no JWT user validation needed
-        BookingDto confirmedBooking = bookingService.confirmBooking(id);
+        BookingDto confirmedBooking;
+        try {
+            confirmedBooking = bookingService.confirmBooking(id);
+        } catch (InsufficientCapacityException e) {
+            return conflict(e.getMessage());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return conflict(CONCURRENT_CHANGE);
+        }
         Map<String, Object> response = new HashMap<>();
         response.put("data", confirmedBooking);
         response.put("success", true);
@@ -288,11 +331,122 @@ public class BookingController {
     }
     
     @GetMapping("/agent/{agentId}/dashboard")
-    public ResponseEntity<Map<String, Object>> getAgentDashboardData(@PathVariable("agentId") Long agentId) {
-        Map<String, Object> dashboardData = bookingService.getAgentDashboardData(agentId);
+    public ResponseEntity<Map<String, Object>> getAgentDashboardData(
+            @PathVariable("agentId") Long agentId,
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        // Paged mode when the caller asks for it; full booking list kept for existing clients
+        Map<String, Object> dashboardData = cursor != null || limit != null
+                ? bookingService.getAgentDashboardPage(agentId, cursor, limit)
+                : bookingService.getAgentDashboardData(agentId);
         Map<String, Object> response = new HashMap<>();
         response.put("data", dashboardData);
         response.put("success", true);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/agent/{agentId}/stats")
+    public ResponseEntity<Map<String, Object>> getAgentStats(@PathVariable("agentId") Long agentId) {
+        AgentStatsDto stats = bookingService.getAgentStats(agentId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", stats);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/agent/stats/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAgentStats(
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        if (!"admin".equalsIgnoreCase(role)) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "Access denied. Admin role required.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+        bookingService.rebuildAgentStats();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Agent statistics rebuilt");
+        return ResponseEntity.ok(response);
+    }
+    
+    // Called by payment-service with the booking's current COMPLETED payment total
+    @PostMapping("/{bookingId}/revenue")
+    public ResponseEntity<Map<String, Object>> recordPaymentRevenue(
+            @PathVariable("bookingId") Long bookingId,
+            @RequestBody Map<String, BigDecimal> body,
+            @RequestHeader(value = "X-Service-Call", required = false) String serviceCall) {
+        // Revenue goes straight into the agents' statistics, so only payment-service may report it
+        if (!"internal".equalsIgnoreCase(serviceCall)) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "Access denied. Internal service calls only.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+        BigDecimal total = body.get("total");
+        if (total == null || total.signum() < 0) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "total is required and must not be negative");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        bookingService.recordPaymentRevenue(bookingId, total);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/inventory/{packageId}")
+    public ResponseEntity<Map<String, Object>> getDepartureInventory(@PathVariable("packageId") Long packageId) {
+        List<DepartureInventoryDto> inventory = bookingService.getDepartureInventory(packageId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", inventory);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Seat capacity of one departure; admins, or the agent who owns the package
+    @PutMapping("/inventory/{packageId}/{startDate}")
+    public ResponseEntity<Map<String, Object>> setDepartureCapacity(
+            @PathVariable("packageId") Long packageId,
+            @PathVariable("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestBody Map<String, Integer> body,
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        if (!"admin".equalsIgnoreCase(role)) {
+            Long agentId = jwtUtil.extractUserIdFromAuthHeader(authHeader);
+            if (agentId == null || !bookingService.isPackageOwner(packageId, agentId)) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("error", "You can only manage seats of your own packages");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+            }
+        }
+        Integer capacity = body.get("capacity");
+        if (capacity == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "capacity is required");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        try {
+            DepartureInventoryDto inventory = bookingService.setDepartureCapacity(packageId, startDate, capacity);
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", inventory);
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+    
+    private static ResponseEntity<Map<String, Object>> conflict(String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("error", message);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+}
@@ -0,0 +1,21 @@
+package com.tpbs.bookingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentStatsDto {
+    
+    private Long agentId;
+    private long totalBookings;
+    private long confirmedBookings;
+    private long pendingBookings;
+    
+    // Sum of COMPLETED payment amounts for the agent's bookings
+    private BigDecimal totalRevenue;
+}
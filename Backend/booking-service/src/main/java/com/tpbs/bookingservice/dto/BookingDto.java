@@ -1,5 +1,6 @@
 package com.tpbs.bookingservice.dto;
 
+import com.tpbs.bookingservice.model.BookingStatus;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -26,8 +27,8 @@ public class BookingDto {
     @NotNull(message = "End date is required")
     private LocalDate endDate;
     
-    @NotBlank(message = "Status is required")
-    private String status;
+    @NotNull(message = "Status is required")
+    private BookingStatus status;
     
     private Long paymentId;
 } 
\ No newline at end of file
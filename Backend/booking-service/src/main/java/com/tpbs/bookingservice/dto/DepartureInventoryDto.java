@@ -0,0 +1,18 @@
+package com.tpbs.bookingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartureInventoryDto {
+    
+    private Long packageId;
+    private LocalDate startDate;
+    private int capacity;
+    private int remaining;
+}
@@ -0,0 +1,8 @@
+package com.tpbs.bookingservice.exception;
+
+public class InsufficientCapacityException extends RuntimeException {
+    
+    public InsufficientCapacityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,251 @@
+package com.tpbs.bookingservice.inventory;
+
+import com.tpbs.bookingservice.client.PackageOccupancyNotifier;
+import com.tpbs.bookingservice.dto.DepartureInventoryDto;
+import com.tpbs.bookingservice.exception.InsufficientCapacityException;
+import com.tpbs.bookingservice.model.BookingStatus;
+import com.tpbs.bookingservice.model.DepartureInventory;
+import com.tpbs.bookingservice.repository.BookingRepository;
+import com.tpbs.bookingservice.repository.DepartureInventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Seat capacity per departure (package and start date).
+ *
+ * The database is the source of truth: every departure that is booked gets an
+ * inventory row (unlimited until a capacity is set), and every reservation is a
+ * conditional {@code UPDATE ... WHERE capacity IS NULL OR remaining >= seats} on it
+ * in the booking's transaction. Reservations and capacity changes therefore queue on
+ * the same row lock, so two concurrent bookings can never both take the last seat and
+ * a capacity set while bookings are in flight still counts them, whichever instance
+ * they run on. In front of it, one atomic counter per limited departure admits at
+ * most {@code remaining} reservations at a time, so once a departure is sold out
+ * further requests are turned away in memory instead of queueing on the row lock.
+ * Counters are only a gate; they are reloaded from the database when they disagree
+ * with it (or are older than {@code bookings.inventory.refresh-millis} and about to
+ * reject), and their seats are handed back if the booking transaction rolls back.
+ */
+@Slf4j
+@Component
+public class SeatInventory {
+
+    private record Departure(Long packageId, LocalDate startDate) {
+    }
+
+    private static final class Counter {
+        private final boolean limited;
+        private final int capacity;
+        private final AtomicInteger remaining;
+        private final long loadedAt = System.nanoTime();
+
+        private Counter(boolean limited, int capacity, int remaining) {
+            this.limited = limited;
+            this.capacity = capacity;
+            this.remaining = new AtomicInteger(remaining);
+        }
+
+        // Unlimited counters admit everything and leave the decision to the database
+        private boolean tryTake(int seats) {
+            if (!limited) {
+                return true;
+            }
+            int current;
+            do {
+                current = remaining.get();
+                if (current < seats) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(current, current - seats));
+            return true;
+        }
+
+        private void give(int seats) {
+            if (!limited) {
+                return;
+            }
+            remaining.accumulateAndGet(seats, (current, added) -> Math.min(capacity, current + added));
+        }
+    }
+
+    private final DepartureInventoryRepository inventoryRepository;
+    private final BookingRepository bookingRepository;
+    private final PackageOccupancyNotifier occupancyNotifier;
+    private final TransactionTemplate newTransaction;
+    private final long refreshNanos;
+
+    private final Map<Departure, Counter> counters = new ConcurrentHashMap<>();
+
+    public SeatInventory(DepartureInventoryRepository inventoryRepository,
+                         BookingRepository bookingRepository,
+                         PackageOccupancyNotifier occupancyNotifier,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${bookings.inventory.refresh-millis:1000}") long refreshMillis) {
+        this.inventoryRepository = inventoryRepository;
+        this.bookingRepository = bookingRepository;
+        this.occupancyNotifier = occupancyNotifier;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMillis);
+    }
+
+    /**
+     * Takes seats for a booking in the caller's transaction. Departures without a
+     * capacity are unlimited, but still go through their inventory row.
+     *
+     * @throws InsufficientCapacityException if fewer than {@code seats} are left
+     */
+    public void reserve(Long packageId, LocalDate startDate, int seats) {
+        Departure departure = new Departure(packageId, startDate);
+        Counter counter = counter(departure, false);
+        if (!counter.tryTake(seats)) {
+            // Another instance may have released seats since this counter was loaded
+            if (isFresh(counter) || !(counter = counter(departure, true)).tryTake(seats)) {
+                throw soldOut(departure);
+            }
+        }
+        if (inventoryRepository.reserve(packageId, startDate, seats) == 0) {
+            // Counter was ahead of the database (seats sold elsewhere); resync and reject
+            counters.remove(departure, counter);
+            throw soldOut(departure);
+        }
+        Counter taken = counter;
+        if (!taken.limited) {
+            return;
+        }
+        afterCompletion(committed -> {
+            if (committed) {
+                occupancyNotifier.occupancyChanged(packageId, startDate, taken.capacity, taken.remaining.get());
+            } else {
+                taken.give(seats);
+            }
+        });
+    }
+
+    /**
+     * Returns a booking's seats in the caller's transaction. A no-op for departures
+     * without a row yet, which count the seats still held when the row is created.
+     */
+    public void release(Long packageId, LocalDate startDate, int seats) {
+        if (inventoryRepository.release(packageId, startDate, seats) == 0) {
+            return;
+        }
+        Departure departure = new Departure(packageId, startDate);
+        afterCompletion(committed -> {
+            if (!committed) {
+                return;
+            }
+            Counter counter = counters.get(departure);
+            if (counter != null && counter.limited) {
+                counter.give(seats);
+            } else {
+                counter = counter(departure, true);
+            }
+            if (!counter.limited) {
+                return;
+            }
+            occupancyNotifier.occupancyChanged(packageId, startDate, counter.capacity, counter.remaining.get());
+        });
+    }
+
+    /**
+     * Sets a departure's capacity. Seats already held by bookings that are not
+     * cancelled stay sold, so the capacity cannot go below them.
+     */
+    public DepartureInventoryDto setCapacity(Long packageId, LocalDate startDate, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative");
+        }
+        Departure departure = new Departure(packageId, startDate);
+        ensureRow(departure);
+        // Waits for reservations in flight on the row; the seats they took stay sold
+        if (inventoryRepository.resize(packageId, startDate, capacity) == 0) {
+            throw new IllegalArgumentException("capacity is below the seats already booked");
+        }
+        afterCompletion(committed -> counters.remove(departure));
+        log.info("Capacity of package {} departing {} set to {}", packageId, startDate, capacity);
+        DepartureInventory saved = inventoryRepository.findById(new DepartureInventory.Key(packageId, startDate)).orElseThrow();
+        return toDto(saved);
+    }
+
+    public List<DepartureInventoryDto> getInventory(Long packageId) {
+        return inventoryRepository.findByPackageIdOrderByStartDate(packageId).stream()
+                .filter(row -> row.getCapacity() != null)
+                .map(SeatInventory::toDto)
+                .toList();
+    }
+
+    // Cached counter, loaded on first use (creating the departure's row if it has none);
+    // "unlimited" answers are rechecked once stale
+    private Counter counter(Departure departure, boolean reload) {
+        Counter counter = counters.get(departure);
+        if (counter == null || reload || (!counter.limited && !isFresh(counter))) {
+            counter = inventoryRepository.findById(new DepartureInventory.Key(departure.packageId(), departure.startDate()))
+                    .filter(row -> row.getCapacity() != null)
+                    .map(row -> new Counter(true, row.getCapacity(), row.getRemaining()))
+                    .orElseGet(() -> {
+                        ensureRow(departure);
+                        return new Counter(false, 0, 0);
+                    });
+            counters.put(departure, counter);
+        }
+        return counter;
+    }
+
+    /*
+     * Creates an unlimited row for a departure that has none, holding the seats of its
+     * existing bookings. Runs in its own short transaction before the caller touches
+     * the row, so concurrent first bookings of a departure do not deadlock on the
+     * insert, and a row created by someone else in the meantime is simply kept.
+     */
+    private void ensureRow(Departure departure) {
+        if (inventoryRepository.existsById(new DepartureInventory.Key(departure.packageId(), departure.startDate()))) {
+            return;
+        }
+        newTransaction.executeWithoutResult(tx -> {
+            long held = bookingRepository.countByPackageIdAndStartDateAndStatusNot(
+                    departure.packageId(), departure.startDate(), BookingStatus.CANCELLED);
+            inventoryRepository.createUnlimited(departure.packageId(), departure.startDate(), (int) -held);
+        });
+    }
+
+    private boolean isFresh(Counter counter) {
+        return System.nanoTime() - counter.loadedAt < refreshNanos;
+    }
+
+    private static InsufficientCapacityException soldOut(Departure departure) {
+        return new InsufficientCapacityException("Not enough seats left for package " + departure.packageId()
+                + " departing " + departure.startDate());
+    }
+
+    private static DepartureInventoryDto toDto(DepartureInventory row) {
+        return new DepartureInventoryDto(row.getPackageId(), row.getStartDate(), row.getCapacity(), row.getRemaining());
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            action.accept(true);
+        }
+    }
+}
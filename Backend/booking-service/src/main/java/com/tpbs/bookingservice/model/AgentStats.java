@@ -0,0 +1,35 @@
+package com.tpbs.bookingservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-agent booking totals maintained incrementally by {@code AgentStatsReadModel}.
+ * Derived data: can always be rebuilt from bookings and payments.
+ */
+@Entity
+@Table(name = "agent_booking_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentStats {
+    
+    @Id
+    private Long agentId;
+    
+    @Column(nullable = false)
+    private long totalBookings;
+    
+    @Column(nullable = false)
+    private long confirmedBookings;
+    
+    @Column(nullable = false)
+    private long pendingBookings;
+    
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
@@ -8,7 +8,13 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        // "My bookings" (findByUserId) and per-user listings by departure
+        @Index(name = "idx_bookings_user_start", columnList = "user_id, start_date"),
+        // Per-package bookings, status counts and summaries
+        @Index(name = "idx_bookings_package_status", columnList = "package_id, status"),
+        @Index(name = "idx_bookings_status_start", columnList = "status, start_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,8 +36,18 @@ public class Booking {
     @Column(nullable = false)
     private LocalDate endDate;
     
-    @Column(nullable = false)
-    private String status;
+    // Pinned to VARCHAR: on a fresh schema Hibernate's MySQL dialect would otherwise
+    // create a native ENUM column, which needs an ALTER for every new status
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10, columnDefinition = "varchar(10)")
+    private BookingStatus status;
     
     private Long paymentId;
+    
+    // Optimistic lock: concurrent status changes (e.g. two cancels) cannot both
+    // commit, so a booking's seats are released at most once. Schema update fills
+    // existing rows with 0
+    @Version
+    @Column(nullable = false)
+    private Long version;
 } 
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.tpbs.bookingservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * The COMPLETED payment total of a booking as last reported by payment-service.
+ * payment-service reports absolute totals, so {@code AgentStatsReadModel} turns each
+ * report into a revenue delta against this row; a repeated report changes nothing.
+ * Derived data, rebuilt together with the agent statistics.
+ */
+@Entity
+@Table(name = "booking_revenue")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingRevenue {
+    
+    @Id
+    private Long bookingId;
+    
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal amount;
+}
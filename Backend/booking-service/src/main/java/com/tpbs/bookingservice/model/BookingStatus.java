@@ -0,0 +1,33 @@
+package com.tpbs.bookingservice.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * Stored by name; in JSON a status is its lower-case code ("pending", "confirmed",
+ * "cancelled") as before, and codes are accepted in any case.
+ */
+public enum BookingStatus {
+    PENDING,
+    CONFIRMED,
+    CANCELLED;
+
+    @JsonValue
+    public String code() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    @JsonCreator
+    public static BookingStatus fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        try {
+            return valueOf(code.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown booking status: " + code);
+        }
+    }
+}
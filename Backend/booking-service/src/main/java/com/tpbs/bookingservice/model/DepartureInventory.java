@@ -0,0 +1,46 @@
+package com.tpbs.bookingservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Seats of one departure (package and start date). {@code remaining} only changes
+ * through the conditional updates in DepartureInventoryRepository, so it can never
+ * drop below zero or rise above {@code capacity}. A row without a capacity is
+ * unlimited: its {@code remaining} is minus the seats held, so setting a capacity
+ * later needs no recount. Every reservation updates its departure's row, so the row
+ * lock orders reservations and capacity changes.
+ */
+@Entity
+@Table(name = "departure_inventory")
+@IdClass(DepartureInventory.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartureInventory {
+    
+    @Id
+    private Long packageId;
+    
+    @Id
+    private LocalDate startDate;
+    
+    // Null: not capacity-limited
+    private Integer capacity;
+    
+    @Column(nullable = false)
+    private int remaining;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long packageId;
+        private LocalDate startDate;
+    }
+}
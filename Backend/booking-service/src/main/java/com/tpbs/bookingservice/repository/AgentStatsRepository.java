@@ -0,0 +1,30 @@
+package com.tpbs.bookingservice.repository;
+
+import com.tpbs.bookingservice.model.AgentStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface AgentStatsRepository extends JpaRepository<AgentStats, Long> {
+    
+    // Adds the deltas to the agent's row in one statement, creating the row on first use
+    @Modifying
+    @Query(value = "INSERT INTO agent_booking_stats " +
+                   "(agent_id, total_bookings, confirmed_bookings, pending_bookings, revenue) " +
+                   "VALUES (:agentId, :total, :confirmed, :pending, :revenue) " +
+                   "ON DUPLICATE KEY UPDATE total_bookings = total_bookings + :total, " +
+                   "confirmed_bookings = confirmed_bookings + :confirmed, " +
+                   "pending_bookings = pending_bookings + :pending, " +
+                   "revenue = revenue + :revenue",
+           nativeQuery = true)
+    void addDeltas(@Param("agentId") Long agentId,
+                   @Param("total") long total,
+                   @Param("confirmed") long confirmed,
+                   @Param("pending") long pending,
+                   @Param("revenue") BigDecimal revenue);
+}
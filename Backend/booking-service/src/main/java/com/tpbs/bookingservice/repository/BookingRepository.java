@@ -1,9 +1,15 @@
 package com.tpbs.bookingservice.repository;
 
 import com.tpbs.bookingservice.model.Booking;
+import com.tpbs.bookingservice.model.BookingStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,4 +17,32 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     
     List<Booking> findByUserId(Long userId);
     List<Booking> findByPackageId(Long packageId);
-} 
\ No newline at end of file
+    List<Booking> findByPackageIdIn(Collection<Long> packageIds);
+    long countByPackageIdAndStartDateAndStatusNot(Long packageId, LocalDate startDate, BookingStatus status);
+    
+    // [packageId, status, count] rows for rebuilding agent statistics
+    @Query("SELECT b.packageId, b.status, COUNT(b) FROM Booking b GROUP BY b.packageId, b.status")
+    List<Object[]> countByPackageAndStatus();
+    
+    // [status, count] rows over a set of packages, e.g. one agent's dashboard
+    @Query("SELECT b.status, COUNT(b) FROM Booking b WHERE b.packageId IN :packageIds GROUP BY b.status")
+    List<Object[]> countByStatusForPackages(@Param("packageIds") Collection<Long> packageIds);
+    
+    // Keyset page of the bookings of a set of packages, in booking id order
+    @Query("SELECT b FROM Booking b WHERE b.packageId IN :packageIds AND b.bookingId > :afterId ORDER BY b.bookingId")
+    List<Booking> findPageByPackageIdIn(@Param("packageIds") Collection<Long> packageIds,
+                                        @Param("afterId") Long afterId, Pageable pageable);
+    
+    // [bookingId, packageId] rows
+    @Query("SELECT b.bookingId, b.packageId FROM Booking b WHERE b.bookingId IN :bookingIds")
+    List<Object[]> findPackageIds(@Param("bookingIds") Collection<Long> bookingIds);
+    
+    // [packageId, bookings, confirmed bookings] rows; packages without bookings are absent
+    @Query("SELECT b.packageId, COUNT(b), SUM(CASE WHEN b.status = com.tpbs.bookingservice.model.BookingStatus.CONFIRMED THEN 1 ELSE 0 END) " +
+           "FROM Booking b WHERE b.packageId IN :packageIds GROUP BY b.packageId")
+    List<Object[]> summarizeByPackageIds(@Param("packageIds") Collection<Long> packageIds);
+    
+    @Query("SELECT b.packageId, COUNT(b), SUM(CASE WHEN b.status = com.tpbs.bookingservice.model.BookingStatus.CONFIRMED THEN 1 ELSE 0 END) " +
+           "FROM Booking b GROUP BY b.packageId")
+    List<Object[]> summarizeByPackage();
+}
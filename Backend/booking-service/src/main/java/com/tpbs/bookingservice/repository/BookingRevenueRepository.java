@@ -0,0 +1,20 @@
+package com.tpbs.bookingservice.repository;
+
+import com.tpbs.bookingservice.model.BookingRevenue;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BookingRevenueRepository extends JpaRepository<BookingRevenue, Long> {
+    
+    // Locks the row, so concurrent reports for one booking are turned into deltas one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM BookingRevenue r WHERE r.bookingId = :bookingId")
+    Optional<BookingRevenue> findForUpdate(@Param("bookingId") Long bookingId);
+}
@@ -0,0 +1,53 @@
+package com.tpbs.bookingservice.repository;
+
+import com.tpbs.bookingservice.model.DepartureInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DepartureInventoryRepository extends JpaRepository<DepartureInventory, DepartureInventory.Key> {
+    
+    List<DepartureInventory> findByPackageIdOrderByStartDate(Long packageId);
+    
+    @Query("SELECT i.remaining FROM DepartureInventory i WHERE i.packageId = :packageId AND i.startDate = :startDate")
+    Optional<Integer> findRemaining(@Param("packageId") Long packageId, @Param("startDate") LocalDate startDate);
+    
+    // Takes seats if the departure is unlimited or enough are left; 0 rows updated means sold out (or no row)
+    @Modifying
+    @Query("UPDATE DepartureInventory i SET i.remaining = i.remaining - :seats " +
+           "WHERE i.packageId = :packageId AND i.startDate = :startDate " +
+           "AND (i.capacity IS NULL OR i.remaining >= :seats)")
+    int reserve(@Param("packageId") Long packageId, @Param("startDate") LocalDate startDate, @Param("seats") int seats);
+    
+    // Returns seats, never beyond capacity
+    @Modifying
+    @Query("UPDATE DepartureInventory i SET i.remaining = i.remaining + :seats " +
+           "WHERE i.packageId = :packageId AND i.startDate = :startDate " +
+           "AND (i.capacity IS NULL OR i.remaining + :seats <= i.capacity)")
+    int release(@Param("packageId") Long packageId, @Param("startDate") LocalDate startDate, @Param("seats") int seats);
+    
+    // Creates an unlimited row unless the departure already has one; 0 rows means it had
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO departure_inventory (package_id, start_date, capacity, remaining) " +
+                   "VALUES (:packageId, :startDate, NULL, :remaining)",
+           nativeQuery = true)
+    int createUnlimited(@Param("packageId") Long packageId, @Param("startDate") LocalDate startDate,
+                        @Param("remaining") int remaining);
+    
+    // Sets the capacity, keeping the seats already sold (an unlimited row counts as capacity 0);
+    // fails if fewer than sold. MySQL applies single-table SET clauses left to right, so
+    // remaining sees the old capacity
+    @Modifying
+    @Query("UPDATE DepartureInventory i SET i.remaining = i.remaining + (:capacity - COALESCE(i.capacity, 0)), " +
+           "i.capacity = :capacity " +
+           "WHERE i.packageId = :packageId AND i.startDate = :startDate " +
+           "AND i.remaining + (:capacity - COALESCE(i.capacity, 0)) >= 0")
+    int resize(@Param("packageId") Long packageId, @Param("startDate") LocalDate startDate, @Param("capacity") int capacity);
+}
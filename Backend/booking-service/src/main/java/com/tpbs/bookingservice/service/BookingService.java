@@ -1,7 +1,12 @@
 package com.tpbs.bookingservice.service;
 
+import com.tpbs.bookingservice.dto.AgentStatsDto;
 import com.tpbs.bookingservice.dto.BookingDto;
+import com.tpbs.bookingservice.dto.DepartureInventoryDto;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -11,6 +16,7 @@ public interface BookingService {
     BookingDto getBookingById(Long id);
     List<BookingDto> getBookingsByUser(Long userId);
     List<BookingDto> getBookingsByPackage(Long packageId);
+    List<BookingDto> getBookingsByPackages(Collection<Long> packageIds);
     BookingDto createBooking(BookingDto bookingDto);
     BookingDto updateBooking(Long id, BookingDto bookingDto);
     void deleteBooking(Long id);
@@ -20,7 +26,18 @@ public interface BookingService {
     // Method to link payment to booking
     BookingDto updateBookingPayment(Long bookingId, Long paymentId);
     
+    // Agent statistics read model
+    void recordPaymentRevenue(Long bookingId, BigDecimal completedTotal);
+    AgentStatsDto getAgentStats(Long agentId);
+    void rebuildAgentStats();
+    
+    // Seat inventory per departure
+    DepartureInventoryDto setDepartureCapacity(Long packageId, LocalDate startDate, int capacity);
+    List<DepartureInventoryDto> getDepartureInventory(Long packageId);
+    boolean isPackageOwner(Long packageId, Long agentId);
+    
     // Enhanced methods with cross-service data
     List<Map<String, Object>> getUserBookingsWithPackageDetails(Long userId);
     Map<String, Object> getAgentDashboardData(Long agentId);
+    Map<String, Object> getAgentDashboardPage(Long agentId, Long cursor, Integer limit);
 }
\ No newline at end of file
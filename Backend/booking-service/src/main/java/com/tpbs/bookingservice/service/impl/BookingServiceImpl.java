@@ -1,17 +1,30 @@
 package com.tpbs.bookingservice.service.impl;
 
+import com.tpbs.bookingservice.client.PackageDetailsCache;
 import com.tpbs.bookingservice.client.PackageServiceClient;
+import com.tpbs.bookingservice.client.PackageSummaryNotifier;
+import com.tpbs.bookingservice.client.PackageTrendingNotifier;
 import com.tpbs.bookingservice.client.UserServiceClient;
+import com.tpbs.bookingservice.dto.AgentStatsDto;
 import com.tpbs.bookingservice.dto.BookingDto;
+import com.tpbs.bookingservice.dto.DepartureInventoryDto;
+import com.tpbs.bookingservice.inventory.SeatInventory;
 import com.tpbs.bookingservice.model.Booking;
+import com.tpbs.bookingservice.model.BookingStatus;
 import com.tpbs.bookingservice.repository.BookingRepository;
 import com.tpbs.bookingservice.service.BookingService;
+import com.tpbs.bookingservice.stats.AgentStatsReadModel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -21,9 +34,23 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookingServiceImpl implements BookingService {
     
+    // Bookings carry no party size, so each one holds a single seat
+    private static final int SEATS_PER_BOOKING = 1;
+    
     private final BookingRepository bookingRepository;
     private final PackageServiceClient packageServiceClient;
+    private final PackageDetailsCache packageDetails;
     private final UserServiceClient userServiceClient;
+    private final AgentStatsReadModel agentStats;
+    private final PackageTrendingNotifier trendingNotifier;
+    private final PackageSummaryNotifier summaryNotifier;
+    private final SeatInventory seatInventory;
+    
+    @Value("${bookings.dashboard.pagination.default-limit:50}")
+    private int defaultPageLimit;
+    
+    @Value("${bookings.dashboard.pagination.max-limit:500}")
+    private int maxPageLimit;
     
     @Override
     @Transactional(readOnly = true)
@@ -57,12 +84,25 @@ public class BookingServiceImpl implements BookingService {
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsByPackages(Collection<Long> packageIds) {
+        return bookingRepository.findByPackageIdIn(packageIds).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+    
     @Override
     public BookingDto createBooking(BookingDto bookingDto) {
         Booking booking = toEntity(bookingDto);
         booking.setBookingId(null);
-        booking.setStatus("pending");
+        booking.setStatus(BookingStatus.PENDING);
+        // First, so a sold-out departure is rejected before anything is written
+        seatInventory.reserve(booking.getPackageId(), booking.getStartDate(), SEATS_PER_BOOKING);
         Booking savedBooking = bookingRepository.save(booking);
+        agentStats.bookingChanged(null, null, savedBooking.getPackageId(), savedBooking.getStatus());
+        trendingNotifier.bookingCreated(savedBooking.getPackageId());
+        summaryNotifier.bookingsChanged(savedBooking.getPackageId());
         return toDto(savedBooking);
     }
     
@@ -70,6 +110,9 @@ public class BookingServiceImpl implements BookingService {
     public BookingDto updateBooking(Long id, BookingDto bookingDto) {
         Booking existingBooking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
+        Long oldPackageId = existingBooking.getPackageId();
+        LocalDate oldStartDate = existingBooking.getStartDate();
+        BookingStatus oldStatus = existingBooking.getStatus();
         
         existingBooking.setUserId(bookingDto.getUserId());
         existingBooking.setPackageId(bookingDto.getPackageId());
@@ -78,32 +121,63 @@ public class BookingServiceImpl implements BookingService {
         existingBooking.setStatus(bookingDto.getStatus());
         existingBooking.setPaymentId(bookingDto.getPaymentId());
         
+        // Move the seat when the departure changes or the booking is cancelled / revived
+        boolean sameDeparture = oldPackageId.equals(existingBooking.getPackageId())
+                && oldStartDate.equals(existingBooking.getStartDate());
+        boolean heldSeat = holdsSeat(oldStatus);
+        boolean holdsSeat = holdsSeat(existingBooking.getStatus());
+        if (holdsSeat && (!heldSeat || !sameDeparture)) {
+            seatInventory.reserve(existingBooking.getPackageId(), existingBooking.getStartDate(), SEATS_PER_BOOKING);
+        }
+        if (heldSeat && (!holdsSeat || !sameDeparture)) {
+            seatInventory.release(oldPackageId, oldStartDate, SEATS_PER_BOOKING);
+        }
+        
         Booking updatedBooking = bookingRepository.save(existingBooking);
+        agentStats.bookingChanged(oldPackageId, oldStatus, updatedBooking.getPackageId(), updatedBooking.getStatus());
+        summaryNotifier.bookingsChanged(oldPackageId);
+        summaryNotifier.bookingsChanged(updatedBooking.getPackageId());
         return toDto(updatedBooking);
     }
     
     @Override
     public void deleteBooking(Long id) {
-        if (!bookingRepository.existsById(id)) {
-            throw new RuntimeException("Booking not found with id: " + id);
+        Booking booking = bookingRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
+        if (holdsSeat(booking.getStatus())) {
+            seatInventory.release(booking.getPackageId(), booking.getStartDate(), SEATS_PER_BOOKING);
         }
-        bookingRepository.deleteById(id);
+        bookingRepository.delete(booking);
+        agentStats.bookingChanged(booking.getPackageId(), booking.getStatus(), null, null);
+        summaryNotifier.bookingsChanged(booking.getPackageId());
     }
     
     @Override
     public BookingDto cancelBooking(Long id) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
-        booking.setStatus("cancelled");
+        BookingStatus oldStatus = booking.getStatus();
+        if (holdsSeat(oldStatus)) {
+            seatInventory.release(booking.getPackageId(), booking.getStartDate(), SEATS_PER_BOOKING);
+        }
+        booking.setStatus(BookingStatus.CANCELLED);
         Booking updatedBooking = bookingRepository.save(booking);
+        agentStats.bookingChanged(booking.getPackageId(), oldStatus, booking.getPackageId(), booking.getStatus());
+        summaryNotifier.bookingsChanged(booking.getPackageId());
         return toDto(updatedBooking);
     }
       @Override
     public BookingDto confirmBooking(Long id) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
-        booking.setStatus("confirmed");
+        BookingStatus oldStatus = booking.getStatus();
+        if (!holdsSeat(oldStatus)) {
+            seatInventory.reserve(booking.getPackageId(), booking.getStartDate(), SEATS_PER_BOOKING);
+        }
+        booking.setStatus(BookingStatus.CONFIRMED);
         Booking updatedBooking = bookingRepository.save(booking);
+        agentStats.bookingChanged(booking.getPackageId(), oldStatus, booking.getPackageId(), booking.getStatus());
+        summaryNotifier.bookingsChanged(booking.getPackageId());
         return toDto(updatedBooking);
     }
     
@@ -122,33 +196,43 @@ public class BookingServiceImpl implements BookingService {
     }
     
     @Override
-    @Transactional(readOnly = true)
+    // No connection is held while package-service is called
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Map<String, Object>> getUserBookingsWithPackageDetails(Long userId) {
         List<BookingDto> userBookings = getBookingsByUser(userId);
-        List<Map<String, Object>> enrichedBookings = new ArrayList<>();
         
+        // One batch lookup for the distinct packages; unresolved ones come back absent
+        Map<Long, Map<String, Object>> packages = packageDetails.getAll(userBookings.stream()
+                .map(BookingDto::getPackageId)
+                .toList());
+        
+        List<Map<String, Object>> enrichedBookings = new ArrayList<>(userBookings.size());
         for (BookingDto booking : userBookings) {
             Map<String, Object> enrichedBooking = new HashMap<>();
             enrichedBooking.put("booking", booking);
-            
-            try {
-                // Fetch package details
-                ResponseEntity<Map<String, Object>> packageResponse = 
-                    packageServiceClient.getPackageById(booking.getPackageId());
-                if (packageResponse.getStatusCode().is2xxSuccessful() && packageResponse.getBody() != null) {
-                    enrichedBooking.put("package", packageResponse.getBody().get("data"));
-                }
-            } catch (Exception e) {
-                log.error("Failed to fetch package details for booking {}: {}", booking.getBookingId(), e.getMessage());
-                enrichedBooking.put("package", null);
-            }
-            
+            enrichedBooking.put("package", packages.get(booking.getPackageId()));
             enrichedBookings.add(enrichedBooking);
         }
-        
         return enrichedBookings;
     }
     
+    @Override
+    public void recordPaymentRevenue(Long bookingId, BigDecimal completedTotal) {
+        agentStats.revenueReported(bookingId, completedTotal);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public AgentStatsDto getAgentStats(Long agentId) {
+        return agentStats.get(agentId);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildAgentStats() {
+        agentStats.rebuild();
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> getAgentDashboardData(Long agentId) {
@@ -166,30 +250,20 @@ public class BookingServiceImpl implements BookingService {
                 
                 dashboardData.put("packages", agentPackages);
                 
-                // Get bookings for agent's packages
-                List<Long> packageIds = agentPackages.stream()
-                    .map(pkg -> Long.valueOf(pkg.get("packageId").toString()))
-                    .collect(Collectors.toList());
-                
-                List<BookingDto> allAgentBookings = new ArrayList<>();
-                for (Long packageId : packageIds) {
-                    allAgentBookings.addAll(getBookingsByPackage(packageId));
-                }
+                // Bookings of all the agent's packages in one query
+                List<Long> packageIds = packageIds(agentPackages);
+                List<BookingDto> allAgentBookings = packageIds.isEmpty()
+                    ? Collections.emptyList()
+                    : getBookingsByPackages(packageIds);
                 
                 dashboardData.put("bookings", allAgentBookings);
                 
-                // Calculate statistics
-                long totalBookings = allAgentBookings.size();
-                long confirmedBookings = allAgentBookings.stream()
-                    .filter(b -> "confirmed".equals(b.getStatus()))
-                    .count();
-                long pendingBookings = allAgentBookings.stream()
-                    .filter(b -> "pending".equals(b.getStatus()))
-                    .count();
-                
-                dashboardData.put("totalBookings", totalBookings);
-                dashboardData.put("confirmedBookings", confirmedBookings);
-                dashboardData.put("pendingBookings", pendingBookings);
+                // Totals come from the precomputed read model
+                AgentStatsDto stats = agentStats.get(agentId);
+                dashboardData.put("totalBookings", stats.getTotalBookings());
+                dashboardData.put("confirmedBookings", stats.getConfirmedBookings());
+                dashboardData.put("pendingBookings", stats.getPendingBookings());
+                dashboardData.put("totalRevenue", stats.getTotalRevenue());
                 
             } else {
                 dashboardData.put("packages", Collections.emptyList());
@@ -207,6 +281,100 @@ public class BookingServiceImpl implements BookingService {
         return dashboardData;
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAgentDashboardPage(Long agentId, Long cursor, Integer limit) {
+        int pageLimit = limit == null || limit <= 0 ? defaultPageLimit : Math.min(limit, maxPageLimit);
+        long afterId = cursor == null ? 0L : cursor;
+        Map<String, Object> dashboardData = new HashMap<>();
+        
+        try {
+            ResponseEntity<Map<String, Object>> packagesResponse = 
+                packageServiceClient.getPackagesByAgent(agentId);
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> agentPackages = packagesResponse.getStatusCode().is2xxSuccessful()
+                    && packagesResponse.getBody() != null
+                    ? (List<Map<String, Object>>) packagesResponse.getBody().get("data")
+                    : Collections.emptyList();
+            List<Long> packageIds = packageIds(agentPackages);
+            dashboardData.put("packages", agentPackages);
+            
+            // Counts come from one GROUP BY over all the agent's bookings, rows from one keyset page
+            Map<String, Long> statusCounts = new HashMap<>();
+            List<Booking> rows = Collections.emptyList();
+            if (!packageIds.isEmpty()) {
+                for (Object[] row : bookingRepository.countByStatusForPackages(packageIds)) {
+                    statusCounts.put(((BookingStatus) row[0]).code(), (Long) row[1]);
+                }
+                // Fetch one extra row to learn whether another page exists without a COUNT query
+                rows = bookingRepository.findPageByPackageIdIn(packageIds, afterId, PageRequest.of(0, pageLimit + 1));
+            }
+            
+            boolean hasMore = rows.size() > pageLimit;
+            List<BookingDto> bookings = rows.stream()
+                    .limit(pageLimit)
+                    .map(this::toDto)
+                    .collect(Collectors.toList());
+            Long nextCursor = hasMore ? bookings.get(bookings.size() - 1).getBookingId() : null;
+            
+            dashboardData.put("bookings", bookings);
+            dashboardData.put("nextCursor", nextCursor);
+            dashboardData.put("hasMore", hasMore);
+            dashboardData.put("limit", pageLimit);
+            dashboardData.put("statusCounts", statusCounts);
+            dashboardData.put("totalBookings", statusCounts.values().stream().mapToLong(Long::longValue).sum());
+            dashboardData.put("confirmedBookings", statusCounts.getOrDefault(BookingStatus.CONFIRMED.code(), 0L));
+            dashboardData.put("pendingBookings", statusCounts.getOrDefault(BookingStatus.PENDING.code(), 0L));
+            dashboardData.put("totalRevenue", agentStats.get(agentId).getTotalRevenue());
+            
+        } catch (Exception e) {
+            log.error("Failed to fetch agent dashboard page for agent {}: {}", agentId, e.getMessage());
+            dashboardData.put("error", "Failed to fetch dashboard data");
+        }
+        
+        return dashboardData;
+    }
+    
+    private static List<Long> packageIds(List<Map<String, Object>> packages) {
+        if (packages == null) {
+            return Collections.emptyList();
+        }
+        return packages.stream()
+                .map(pkg -> Long.valueOf(pkg.get("packageId").toString()))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public DepartureInventoryDto setDepartureCapacity(Long packageId, LocalDate startDate, int capacity) {
+        return seatInventory.setCapacity(packageId, startDate, capacity);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<DepartureInventoryDto> getDepartureInventory(Long packageId) {
+        return seatInventory.getInventory(packageId);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public boolean isPackageOwner(Long packageId, Long agentId) {
+        try {
+            ResponseEntity<Map<String, Object>> response = packageServiceClient.getPackageById(packageId);
+            return response.getStatusCode().is2xxSuccessful() && response.getBody() != null
+                    && response.getBody().get("data") instanceof Map<?, ?> pkg
+                    && pkg.get("agentId") instanceof Number owner
+                    && owner.longValue() == agentId;
+        } catch (Exception e) {
+            log.warn("Could not verify owner of package {}: {}", packageId, e.getMessage());
+            return false;
+        }
+    }
+    
+    // Every booking status except CANCELLED keeps its seat
+    private static boolean holdsSeat(BookingStatus status) {
+        return status != BookingStatus.CANCELLED;
+    }
+    
     private BookingDto toDto(Booking booking) {
         return new BookingDto(
                 booking.getBookingId(),
@@ -227,7 +395,8 @@ public class BookingServiceImpl implements BookingService {
                 dto.getStartDate(),
                 dto.getEndDate(),
                 dto.getStatus(),
-                dto.getPaymentId()
+                dto.getPaymentId(),
+                null
         );
     }
 } 
\ No newline at end of file
@@ -0,0 +1,312 @@
+package com.tpbs.bookingservice.stats;
+
+import com.tpbs.bookingservice.client.PackageServiceClient;
+import com.tpbs.bookingservice.client.PaymentServiceClient;
+import com.tpbs.bookingservice.dto.AgentStatsDto;
+import com.tpbs.bookingservice.model.AgentStats;
+import com.tpbs.bookingservice.model.Booking;
+import com.tpbs.bookingservice.model.BookingRevenue;
+import com.tpbs.bookingservice.model.BookingStatus;
+import com.tpbs.bookingservice.repository.AgentStatsRepository;
+import com.tpbs.bookingservice.repository.BookingRepository;
+import com.tpbs.bookingservice.repository.BookingRevenueRepository;
+import com.tpbs.common.client.CoalescingNotifier;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-agent booking totals (bookings, confirmed, pending, revenue) kept up to date
+ * incrementally: booking writes and payment revenue reports apply small deltas to a
+ * compact table (one upsert per change, in the caller's transaction) and, after
+ * commit, to an in-memory map that dashboards read in O(1). payment-service reports a
+ * booking's absolute COMPLETED total, which is turned into a delta against the last
+ * reported total, so it can retry a report without counting it twice.
+ *
+ * Package owners come from package-service and are cached. A write never calls it:
+ * if the owner of a package is not cached yet, the package's delta is queued after
+ * commit and applied off the request thread once the owner is resolved, retried
+ * with backoff while package-service is unavailable.
+ *
+ * The table is derived data. {@link #rebuild()} recomputes it from bookings, payments
+ * and package owners; it runs at startup while the table is empty (retried until all
+ * three can be read) and on demand. Deltas committed while a rebuild runs may be
+ * lost, so run it when the numbers have drifted, not routinely.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AgentStatsReadModel {
+
+    private record Counters(long total, long confirmed, long pending, BigDecimal revenue) {
+
+        static final Counters ZERO = new Counters(0, 0, 0, BigDecimal.ZERO);
+
+        static Counters of(BookingStatus status, int sign) {
+            return new Counters(sign,
+                    status == BookingStatus.CONFIRMED ? sign : 0,
+                    status == BookingStatus.PENDING ? sign : 0,
+                    BigDecimal.ZERO);
+        }
+
+        Counters plus(Counters other) {
+            return new Counters(total + other.total, confirmed + other.confirmed,
+                    pending + other.pending, revenue.add(other.revenue));
+        }
+
+        boolean isZero() {
+            return total == 0 && confirmed == 0 && pending == 0 && revenue.signum() == 0;
+        }
+    }
+
+    private static final long RETRY_INITIAL_MILLIS = 1_000;
+    private static final long RETRY_MAX_MILLIS = 60_000;
+
+    private final AgentStatsRepository statsRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingRevenueRepository revenueRepository;
+    private final PackageServiceClient packageServiceClient;
+    private final PaymentServiceClient paymentServiceClient;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Counters> stats = new ConcurrentHashMap<>();
+    // packageId -> agentId; packages never change owner, so entries never go stale
+    private final Map<Long, Long> packageAgents = new ConcurrentHashMap<>();
+    // packageId -> committed delta still waiting for its package's owner
+    private final Map<Long, Counters> unresolved = new ConcurrentHashMap<>();
+    // Resolves queued deltas and runs the startup rebuild, both retried with backoff
+    private final CoalescingNotifier<Long> worker = new CoalescingNotifier<>("agent-stats-worker",
+            this::applyUnresolved, RETRY_INITIAL_MILLIS, RETRY_MAX_MILLIS);
+
+    // Loaded before the web server accepts requests, so no delta can race the load
+    @PostConstruct
+    void load() {
+        statsRepository.findAll().forEach(row -> stats.put(row.getAgentId(),
+                new Counters(row.getTotalBookings(), row.getConfirmedBookings(),
+                        row.getPendingBookings(), row.getRevenue())));
+        log.info("Loaded booking statistics for {} agents", stats.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    // Also rebuilds statistics kept before per-booking revenue totals were recorded, since
+    // reports are diffed against them. Deltas applied before it succeeds are replaced
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        boolean revenueUntracked = revenueRepository.count() == 0
+                && stats.values().stream().anyMatch(c -> c.revenue().signum() != 0);
+        if ((stats.isEmpty() && bookingRepository.count() > 0) || revenueUntracked) {
+            worker.runWithRetry(this::rebuild);
+        }
+    }
+
+    public AgentStatsDto get(Long agentId) {
+        Counters c = stats.getOrDefault(agentId, Counters.ZERO);
+        return new AgentStatsDto(agentId, c.total(), c.confirmed(), c.pending(), c.revenue());
+    }
+
+    /**
+     * Records a booking write. Pass nulls for the "old" side on create and for the
+     * "new" side on delete. Only cached owners are used, so no remote call is made
+     * inside the booking transaction.
+     */
+    public void bookingChanged(Long oldPackageId, BookingStatus oldStatus, Long newPackageId, BookingStatus newStatus) {
+        Map<Long, Counters> deltas = new HashMap<>();
+        if (oldPackageId != null) {
+            addDelta(deltas, oldPackageId, Counters.of(oldStatus, -1));
+        }
+        if (newPackageId != null) {
+            addDelta(deltas, newPackageId, Counters.of(newStatus, 1));
+        }
+        deltas.forEach(this::apply);
+    }
+
+    /**
+     * Records the current COMPLETED payment total of a booking. Only the change against
+     * the last reported total is applied, so a repeated report changes nothing.
+     */
+    public void revenueReported(Long bookingId, BigDecimal total) {
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            log.warn("Revenue total of {} for unknown booking {} ignored", total, bookingId);
+            return;
+        }
+        BigDecimal previous = revenueRepository.findForUpdate(bookingId)
+                .map(BookingRevenue::getAmount)
+                .orElse(BigDecimal.ZERO);
+        BigDecimal delta = total.subtract(previous);
+        if (delta.signum() == 0) {
+            return;
+        }
+        revenueRepository.save(new BookingRevenue(bookingId, total));
+        Map<Long, Counters> deltas = new HashMap<>();
+        addDelta(deltas, booking.getPackageId(), new Counters(0, 0, 0, delta));
+        deltas.forEach(this::apply);
+    }
+
+    /** Recomputes every agent's totals from bookings and payments and replaces the table. */
+    public synchronized void rebuild() {
+        // Remote lookups happen before the write transaction opens
+        primePackageAgents();
+        Map<Long, BigDecimal> revenueByBooking = fetchRevenueByBooking();
+
+        Map<Long, Counters> rebuilt = new HashMap<>();
+        for (Object[] row : bookingRepository.countByPackageAndStatus()) {
+            Long packageId = (Long) row[0];
+            long count = (Long) row[2];
+            Counters one = Counters.of((BookingStatus) row[1], 1);
+            addTo(rebuilt, packageId, new Counters(count, one.confirmed() * count, one.pending() * count, BigDecimal.ZERO));
+        }
+        List<Long> bookingIds = new ArrayList<>(revenueByBooking.keySet());
+        for (int i = 0; i < bookingIds.size(); i += 1000) {
+            for (Object[] row : bookingRepository.findPackageIds(bookingIds.subList(i, Math.min(bookingIds.size(), i + 1000)))) {
+                addTo(rebuilt, (Long) row[1], new Counters(0, 0, 0, revenueByBooking.get((Long) row[0])));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            statsRepository.deleteAllInBatch();
+            statsRepository.saveAll(rebuilt.entrySet().stream()
+                    .map(e -> new AgentStats(e.getKey(), e.getValue().total(), e.getValue().confirmed(),
+                            e.getValue().pending(), e.getValue().revenue()))
+                    .toList());
+            revenueRepository.deleteAllInBatch();
+            revenueRepository.saveAll(revenueByBooking.entrySet().stream()
+                    .map(e -> new BookingRevenue(e.getKey(), e.getValue()))
+                    .toList());
+        });
+        stats.clear();
+        stats.putAll(rebuilt);
+        log.info("Rebuilt booking statistics for {} agents", rebuilt.size());
+    }
+
+    // Folds a per-package delta into the per-agent map, or queues it if the owner is not cached
+    private void addDelta(Map<Long, Counters> deltas, Long packageId, Counters delta) {
+        Long agentId = packageAgents.get(packageId);
+        if (agentId == null) {
+            // Registered before the worker's own hook, so the delta is queued when it runs
+            afterCommit(() -> unresolved.merge(packageId, delta, Counters::plus));
+            worker.changed(packageId);
+            return;
+        }
+        deltas.merge(agentId, delta, Counters::plus);
+    }
+
+    // Runs on the worker thread; packages whose owner is still unknown are retried
+    private void applyUnresolved(List<Long> packageIds) {
+        List<Long> failed = new ArrayList<>();
+        for (Long packageId : packageIds) {
+            Long agentId = agentOf(packageId);
+            if (agentId == null) {
+                failed.add(packageId);
+                continue;
+            }
+            Counters delta = unresolved.remove(packageId);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(tx -> apply(agentId, delta));
+            } catch (RuntimeException e) {
+                unresolved.merge(packageId, delta, Counters::plus);
+                throw e;
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("Agent of package(s) " + failed + " unknown");
+        }
+    }
+
+    private void addTo(Map<Long, Counters> byAgent, Long packageId, Counters counters) {
+        Long agentId = agentOf(packageId);
+        if (agentId != null) {
+            byAgent.merge(agentId, counters, Counters::plus);
+        }
+    }
+
+    private void apply(Long agentId, Counters delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        statsRepository.addDeltas(agentId, delta.total(), delta.confirmed(), delta.pending(), delta.revenue());
+        afterCommit(() -> stats.merge(agentId, delta, Counters::plus));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Long agentOf(Long packageId) {
+        Long cached = packageAgents.get(packageId);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            ResponseEntity<Map<String, Object>> response = packageServiceClient.getPackageById(packageId);
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null
+                    && response.getBody().get("data") instanceof Map<?, ?> pkg
+                    && pkg.get("agentId") instanceof Number agentId) {
+                packageAgents.put(packageId, agentId.longValue());
+                return agentId.longValue();
+            }
+        } catch (Exception e) {
+            log.debug("Could not resolve agent of package {}: {}", packageId, e.getMessage());
+        }
+        return null;
+    }
+
+    // One catalog read instead of a package lookup per booked package. Without it most
+    // packages would be skipped, so a rebuild fails (and is retried) instead of undercounting
+    @SuppressWarnings("unchecked")
+    private void primePackageAgents() {
+        ResponseEntity<Map<String, Object>> response = packageServiceClient.getAllPackages();
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            throw new IllegalStateException("package-service returned " + response.getStatusCode());
+        }
+        for (Map<String, Object> pkg : (List<Map<String, Object>>) response.getBody().get("data")) {
+            if (pkg.get("packageId") instanceof Number packageId && pkg.get("agentId") instanceof Number agentId) {
+                packageAgents.put(packageId.longValue(), agentId.longValue());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, BigDecimal> fetchRevenueByBooking() {
+        ResponseEntity<Map<String, Object>> response = paymentServiceClient.getRevenueByBooking();
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            throw new IllegalStateException("payment-service returned " + response.getStatusCode());
+        }
+        Map<Long, BigDecimal> revenue = new HashMap<>();
+        for (Map<String, Object> row : (List<Map<String, Object>>) response.getBody().get("data")) {
+            revenue.put(((Number) row.get("bookingId")).longValue(), new BigDecimal(row.get("amount").toString()));
+        }
+        return revenue;
+    }
+}
@@ -0,0 +1,189 @@
+package com.tpbs.bookingservice.inventory;
+
+import com.tpbs.bookingservice.client.PackageOccupancyNotifier;
+import com.tpbs.bookingservice.exception.InsufficientCapacityException;
+import com.tpbs.bookingservice.model.Booking;
+import com.tpbs.bookingservice.model.BookingStatus;
+import com.tpbs.bookingservice.model.DepartureInventory;
+import com.tpbs.bookingservice.repository.BookingRepository;
+import com.tpbs.bookingservice.repository.DepartureInventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many threads booking and cancelling the same departure, each step in its own
+ * transaction as BookingServiceImpl runs it, against H2 in MySQL mode. Whatever the
+ * interleaving, a departure must never be oversold and its row must agree with the
+ * bookings that hold a seat.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never",
+        "bookings.inventory.refresh-millis=5"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SeatInventory.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatInventoryConcurrencyTest {
+
+    private static final Long PACKAGE_ID = 7L;
+    private static final LocalDate START = LocalDate.of(2030, 6, 1);
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 60;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private DepartureInventoryRepository inventoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private PackageOccupancyNotifier occupancyNotifier;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        inventoryRepository.deleteAll();
+    }
+
+    @Test
+    void reserveAndCancelNeverOversell() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> seatInventory.setCapacity(PACKAGE_ID, START, 10));
+
+        runConcurrently(tx, null);
+
+        assertConsistent(10);
+    }
+
+    @Test
+    void capacitySetWhileBookingCountsBookingsInFlight() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger capacity = new AtomicInteger(5);
+        // Departure starts unlimited; the capacity lands somewhere in the middle of the bookings
+        Runnable setCapacity = () -> {
+            while (true) {
+                try {
+                    tx.executeWithoutResult(status -> seatInventory.setCapacity(PACKAGE_ID, START, capacity.get()));
+                    return;
+                } catch (IllegalArgumentException e) {
+                    capacity.addAndGet(5);
+                }
+            }
+        };
+
+        runConcurrently(tx, setCapacity);
+
+        assertConsistent(capacity.get());
+    }
+
+    private void runConcurrently(TransactionTemplate tx, Runnable extra) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Long> held = new ConcurrentLinkedQueue<>();
+        AtomicBoolean negativeSeen = new AtomicBoolean();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    Long cancel = ThreadLocalRandom.current().nextInt(3) == 0 ? held.poll() : null;
+                    try {
+                        if (cancel != null) {
+                            cancel(tx, cancel);
+                        } else {
+                            held.add(book(tx));
+                        }
+                    } catch (InsufficientCapacityException | ConcurrencyFailureException e) {
+                        // Sold out, or lost a race on the same booking: both are expected outcomes
+                    }
+                    checkRow(negativeSeen);
+                }
+                return null;
+            }));
+        }
+        if (extra != null) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                Thread.sleep(5);
+                extra.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        assertThat(negativeSeen).as("remaining went negative").isFalse();
+    }
+
+    private Long book(TransactionTemplate tx) {
+        return tx.execute(status -> {
+            seatInventory.reserve(PACKAGE_ID, START, 1);
+            Booking booking = new Booking(null, 1L, PACKAGE_ID, START, START.plusDays(5), BookingStatus.PENDING, null, null);
+            return bookingRepository.save(booking).getBookingId();
+        });
+    }
+
+    private void cancel(TransactionTemplate tx, Long bookingId) {
+        tx.executeWithoutResult(status -> {
+            Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+            seatInventory.release(booking.getPackageId(), booking.getStartDate(), 1);
+            booking.setStatus(BookingStatus.CANCELLED);
+            bookingRepository.save(booking);
+        });
+    }
+
+    private void checkRow(AtomicBoolean negativeSeen) {
+        Optional<DepartureInventory> row = inventoryRepository.findById(new DepartureInventory.Key(PACKAGE_ID, START));
+        if (row.isPresent() && row.get().getCapacity() != null && row.get().getRemaining() < 0) {
+            negativeSeen.set(true);
+        }
+    }
+
+    private void assertConsistent(int capacity) {
+        DepartureInventory row = inventoryRepository.findById(new DepartureInventory.Key(PACKAGE_ID, START)).orElseThrow();
+        long sold = bookingRepository.countByPackageIdAndStartDateAndStatusNot(PACKAGE_ID, START, BookingStatus.CANCELLED);
+        assertThat(row.getCapacity()).isEqualTo(capacity);
+        assertThat(row.getRemaining()).isGreaterThanOrEqualTo(0);
+        assertThat(sold).isLessThanOrEqualTo(capacity);
+        assertThat(row.getRemaining()).isEqualTo(capacity - sold);
+    }
+}
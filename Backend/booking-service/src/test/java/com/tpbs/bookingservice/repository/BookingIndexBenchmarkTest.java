@@ -0,0 +1,155 @@
+package com.tpbs.bookingservice.repository;
+
+import com.tpbs.bookingservice.model.Booking;
+import com.tpbs.bookingservice.model.BookingStatus;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Before/after check for the composite indexes declared on Booking (and created on
+ * older schemas by BookingStatusMigration), against H2 in MySQL mode. A large bookings
+ * table is queried by user, by package and for per-package status counts, first with
+ * the indexes dropped and then with them recreated: the plans must switch from a table
+ * scan to the index, and the indexed runs must be faster. Timings are logged; they run
+ * the repository methods' SQL over JDBC, so entity mapping does not blur the difference.
+ */
+@Slf4j
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bookingindexes;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingIndexBenchmarkTest {
+
+    private static final int BOOKINGS = 100_000;
+    private static final int USERS = 5_000;
+    private static final int PACKAGES = 2_000;
+    // One agent's dashboard counts statuses over this many packages
+    private static final int AGENT_PACKAGES = 20;
+    private static final int RUNS = 200;
+
+    // SQL of findByUserId, findByPackageId and countByStatusForPackages
+    private static final String USER_QUERY = "SELECT * FROM bookings WHERE user_id = ?";
+    private static final String PACKAGE_QUERY = "SELECT * FROM bookings WHERE package_id = ?";
+    private static final String STATUS_COUNT_QUERY = "SELECT status, COUNT(*) FROM bookings " +
+            "WHERE package_id IN (" + String.join(", ", Collections.nCopies(AGENT_PACKAGES, "?")) + ") GROUP BY status";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void cleanUp() {
+        new JdbcTemplate(dataSource).update("DELETE FROM bookings");
+    }
+
+    @Test
+    void compositeIndexesReplaceTableScans() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        seed(jdbc);
+        Index[] indexes = Booking.class.getAnnotation(Table.class).indexes();
+
+        for (Index index : indexes) {
+            jdbc.execute("DROP INDEX IF EXISTS " + index.name());
+        }
+        jdbc.execute("ANALYZE");
+        assertThat(explain(jdbc, USER_QUERY)).contains("tableScan");
+        assertThat(explain(jdbc, PACKAGE_QUERY)).contains("tableScan");
+        assertThat(explain(jdbc, STATUS_COUNT_QUERY)).contains("tableScan");
+        long[] scans = timeQueries(jdbc);
+
+        for (Index index : indexes) {
+            jdbc.execute("CREATE INDEX " + index.name() + " ON bookings (" + index.columnList() + ")");
+        }
+        jdbc.execute("ANALYZE");
+        assertThat(explain(jdbc, USER_QUERY)).contains("idx_bookings_user_start");
+        assertThat(explain(jdbc, PACKAGE_QUERY)).contains("idx_bookings_package_status");
+        assertThat(explain(jdbc, STATUS_COUNT_QUERY)).contains("idx_bookings_package_status");
+        long[] indexed = timeQueries(jdbc);
+
+        String[] names = {"findByUserId", "findByPackageId", "countByStatusForPackages"};
+        for (int i = 0; i < names.length; i++) {
+            log.info("{} x {} over {} bookings: {} ms without indexes, {} ms with indexes",
+                    names[i], RUNS, BOOKINGS, scans[i] / 1_000_000, indexed[i] / 1_000_000);
+            assertThat(indexed[i]).as(names[i]).isLessThan(scans[i]);
+        }
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        Random random = new Random(7);
+        BookingStatus[] statuses = BookingStatus.values();
+        LocalDate first = LocalDate.of(2030, 1, 1);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDate start = first.plusDays(random.nextInt(365));
+            rows.add(new Object[]{(long) random.nextInt(USERS) + 1, (long) random.nextInt(PACKAGES) + 1,
+                    Date.valueOf(start), Date.valueOf(start.plusDays(7)), statuses[random.nextInt(statuses.length)].name()});
+            if (rows.size() == 5_000) {
+                insert(jdbc, rows);
+            }
+        }
+        insert(jdbc, rows);
+    }
+
+    private static void insert(JdbcTemplate jdbc, List<Object[]> rows) {
+        jdbc.batchUpdate("INSERT INTO bookings (user_id, package_id, start_date, end_date, status, version) " +
+                "VALUES (?, ?, ?, ?, ?, 0)", rows);
+        rows.clear();
+    }
+
+    private static String explain(JdbcTemplate jdbc, String sql) {
+        return jdbc.queryForObject("EXPLAIN " + sql.replace("?", "42"), String.class);
+    }
+
+    // A window of consecutive package ids, so H2 cannot answer repeats from its result cache
+    private static Object[] agentPackages(long key) {
+        long first = key % PACKAGES + 1;
+        return LongStream.range(first, first + AGENT_PACKAGES).boxed().toArray();
+    }
+
+    // Nanoseconds for RUNS executions of each query (after a warm-up pass), random keys
+    private static long[] timeQueries(JdbcTemplate jdbc) {
+        return new long[]{
+                time(key -> jdbc.queryForList(USER_QUERY, key % USERS + 1)),
+                time(key -> jdbc.queryForList(PACKAGE_QUERY, key % PACKAGES + 1)),
+                time(key -> jdbc.queryForList(STATUS_COUNT_QUERY, agentPackages(key)))
+        };
+    }
+
+    private static long time(LongConsumer query) {
+        Random random = new Random(11);
+        for (int i = 0; i < RUNS / 10; i++) {
+            query.accept(random.nextInt(Integer.MAX_VALUE));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            query.accept(random.nextInt(Integer.MAX_VALUE));
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,125 @@
+package com.tpbs.common.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects changed keys (e.g. package ids) and hands them to a sender in batches on
+ * one background thread, so a burst of writes becomes one report. Keys are queued
+ * after the surrounding transaction commits. If a send fails, its keys go back into
+ * the queue, merged with any newer ones, and are retried with exponential backoff
+ * until the receiver is reachable again; senders are expected to report current
+ * state for the keys they get, so a retried or repeated key is harmless.
+ */
+@Slf4j
+public class CoalescingNotifier<K> {
+
+    /** Reports one batch of changed keys; throws to have them retried. */
+    @FunctionalInterface
+    public interface Sender<K> {
+        void send(List<K> keys) throws Exception;
+    }
+
+    /** A whole-state report, retried like a batch until it succeeds. */
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private final String name;
+    private final Sender<K> sender;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final Set<K> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor;
+    // Only touched on the executor thread
+    private long backoffMillis;
+
+    public CoalescingNotifier(String name, Sender<K> sender, long initialBackoffMillis, long maxBackoffMillis) {
+        this.name = name;
+        this.sender = sender;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void changed(K key) {
+        if (key == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(key);
+                }
+            });
+        } else {
+            schedule(key);
+        }
+    }
+
+    /** Runs a task on the sender thread, retrying it with backoff until it succeeds. */
+    public void runWithRetry(Task task) {
+        executor.execute(() -> attempt(task, initialBackoffMillis));
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Changes arriving while a report is being sent (or backing off) go out together in the next one
+    private void schedule(K key) {
+        pending.add(key);
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        scheduled.set(false);
+        List<K> keys = new ArrayList<>(pending);
+        pending.removeAll(keys);
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            sender.send(keys);
+            backoffMillis = 0;
+        } catch (Exception e) {
+            pending.addAll(keys);
+            backoffMillis = backoffMillis == 0 ? initialBackoffMillis : Math.min(maxBackoffMillis, backoffMillis * 2);
+            log.warn("{}: could not report {} change(s), retrying in {} ms: {}",
+                    name, keys.size(), backoffMillis, e.getMessage());
+            if (scheduled.compareAndSet(false, true)) {
+                executor.schedule(this::flush, backoffMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void attempt(Task task, long delayMillis) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.warn("{}: full report failed, retrying in {} ms: {}", name, delayMillis, e.getMessage());
+            executor.schedule(() -> attempt(task, Math.min(maxBackoffMillis, delayMillis * 2)),
+                    delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
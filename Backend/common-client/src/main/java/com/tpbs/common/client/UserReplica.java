@@ -0,0 +1,137 @@
+package com.tpbs.common.client;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eventually consistent local copy of the user fields this service enriches with
+ * (name, email, contactNumber, role), kept current by long-polling the user-service
+ * change feed. Lookups that miss should fall back to the service's own
+ * UserServiceClient. Each service registers one as a bean, passing its Feign call
+ * to {@code GET /api/users/changes} as the {@link ChangeSource}.
+ */
+@Slf4j
+public class UserReplica {
+
+    /** One long-poll of the user change feed. */
+    @FunctionalInterface
+    public interface ChangeSource {
+        ResponseEntity<Map<String, Object>> getUserChanges(long since, String epoch, int waitSeconds);
+    }
+
+    private final ChangeSource changeSource;
+    private final boolean enabled;
+    private final int waitSeconds;
+    private final long retryDelayMs;
+
+    private volatile Map<Long, Map<String, Object>> users = new ConcurrentHashMap<>();
+    private volatile String epoch = "";
+    private volatile long version;
+    private volatile boolean running;
+    private ExecutorService poller;
+
+    public UserReplica(ChangeSource changeSource, boolean enabled, int waitSeconds, long retryDelayMs) {
+        this.changeSource = changeSource;
+        this.enabled = enabled;
+        this.waitSeconds = waitSeconds;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("User replica disabled; user lookups go to user-service");
+            return;
+        }
+        running = true;
+        poller = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "user-replica-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.submit(this::pollLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (poller != null) {
+            poller.shutdownNow();
+            poller.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    public Optional<Map<String, Object>> get(Long userId) {
+        return userId == null ? Optional.empty() : Optional.ofNullable(users.get(userId));
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                ResponseEntity<Map<String, Object>> response =
+                    changeSource.getUserChanges(version, epoch, waitSeconds);
+                if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> batch = (Map<String, Object>) response.getBody().get("data");
+                    apply(batch);
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.debug("User change feed unavailable, retrying in {} ms: {}", retryDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(Map<String, Object> batch) {
+        if (batch == null) {
+            return;
+        }
+        List<Map<String, Object>> changes = (List<Map<String, Object>>) batch.get("changes");
+        boolean snapshot = Boolean.TRUE.equals(batch.get("snapshot"));
+        Map<Long, Map<String, Object>> target = snapshot ? new ConcurrentHashMap<>() : users;
+
+        if (changes != null) {
+            for (Map<String, Object> change : changes) {
+                Long userId = ((Number) change.get("userId")).longValue();
+                if (Boolean.TRUE.equals(change.get("deleted"))) {
+                    target.remove(userId);
+                } else {
+                    target.put(userId, Map.of(
+                        "userId", userId,
+                        "name", String.valueOf(change.get("name")),
+                        "email", String.valueOf(change.get("email")),
+                        "contactNumber", change.get("contactNumber") != null ? change.get("contactNumber") : "N/A",
+                        "role", String.valueOf(change.get("role"))
+                    ));
+                }
+            }
+        }
+
+        // Swap the snapshot in whole so readers never see a half-built replica
+        if (snapshot) {
+            users = target;
+            log.info("User replica loaded snapshot of {} users", target.size());
+        }
+        epoch = String.valueOf(batch.get("epoch"));
+        version = ((Number) batch.get("version")).longValue();
+    }
+}
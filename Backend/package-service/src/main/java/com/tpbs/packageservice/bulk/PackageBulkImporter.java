@@ -0,0 +1,158 @@
+package com.tpbs.packageservice.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpbs.packageservice.dto.ImportResultDto;
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.event.PackageBatchChangedEvent;
+import com.tpbs.packageservice.event.PackageChangedEvent;
+import com.tpbs.packageservice.mapper.TravelPackageMapper;
+import com.tpbs.packageservice.model.TravelPackage;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams rows from the request body, validates each one, and inserts valid rows in
+ * chunks of {@code packages.import.chunk-size}, each chunk in its own transaction.
+ * Hibernate batches the inserts (pooled ids + hibernate.jdbc.batch_size). A failed
+ * chunk is reported row by row and does not undo chunks already committed.
+ */
+@Slf4j
+@Component
+public class PackageBulkImporter {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TravelPackageMapper packageMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public PackageBulkImporter(EntityManager entityManager,
+                               TransactionTemplate transactionTemplate,
+                               TravelPackageMapper packageMapper,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${packages.import.chunk-size:500}") int chunkSize,
+                               @Value("${packages.import.max-reported-errors:500}") int maxReportedErrors) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.packageMapper = packageMapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportResultDto importJson(InputStream in, Long agentId) throws IOException {
+        try (PackageRowReader reader = PackageRowReader.json(in, objectMapper)) {
+            return run(reader, agentId);
+        }
+    }
+
+    public ImportResultDto importCsv(InputStream in, Long agentId) throws IOException {
+        try (PackageRowReader reader = PackageRowReader.csv(in)) {
+            return run(reader, agentId);
+        }
+    }
+
+    private ImportResultDto run(PackageRowReader reader, Long agentId) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        List<PackageRowReader.Row> chunk = new ArrayList<>(chunkSize);
+
+        PackageRowReader.Row row;
+        while ((row = reader.next()) != null) {
+            progress.total++;
+            String error = row.error() != null ? row.error() : validate(row.travelPackage(), agentId);
+            if (error != null) {
+                progress.fail(row.number(), error);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                commit(chunk, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            commit(chunk, progress);
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        double rowsPerSecond = progress.imported * 1000.0 / elapsedMillis;
+        log.info("Imported {} of {} packages for agent {} in {} ms ({} rows/s)",
+                progress.imported, progress.total, agentId, elapsedMillis, Math.round(rowsPerSecond));
+        return new ImportResultDto(progress.total, progress.imported, progress.failed,
+                elapsedMillis, rowsPerSecond, progress.errors);
+    }
+
+    private String validate(TravelPackageDto dto, Long agentId) {
+        dto.setPackageId(null);
+        dto.setAgentId(agentId);
+        Set<ConstraintViolation<TravelPackageDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void commit(List<PackageRowReader.Row> chunk, Progress progress) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                List<TravelPackage> entities = new ArrayList<>(chunk.size());
+                for (PackageRowReader.Row row : chunk) {
+                    TravelPackage entity = packageMapper.toEntity(row.travelPackage());
+                    entityManager.persist(entity);
+                    entities.add(entity);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                // Delivered to the catalog and indexes once this chunk commits
+                eventPublisher.publishEvent(new PackageBatchChangedEvent(entities.stream()
+                        .map(packageMapper::toDto)
+                        .map(dto -> new PackageChangedEvent(dto.getPackageId(), dto))
+                        .toList()));
+            });
+            progress.imported += chunk.size();
+        } catch (RuntimeException e) {
+            log.warn("Import chunk of {} rows failed: {}", chunk.size(), e.getMessage());
+            String message = "Not imported: chunk failed (" + NestedExceptionUtils.getMostSpecificCause(e).getMessage() + ")";
+            chunk.forEach(row -> progress.fail(row.number(), message));
+        }
+    }
+
+    private final class Progress {
+        private int total;
+        private int imported;
+        private int failed;
+        private final List<ImportResultDto.RowError> errors = new ArrayList<>();
+
+        private void fail(int row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportResultDto.RowError(row, message));
+            }
+        }
+    }
+}
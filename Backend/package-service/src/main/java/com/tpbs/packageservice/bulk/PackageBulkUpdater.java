@@ -0,0 +1,215 @@
+package com.tpbs.packageservice.bulk;
+
+import com.tpbs.packageservice.dto.BulkUpdateRequestDto;
+import com.tpbs.packageservice.dto.BulkUpdateResultDto;
+import com.tpbs.packageservice.event.PackageBatchChangedEvent;
+import com.tpbs.packageservice.event.PackageChangedEvent;
+import com.tpbs.packageservice.mapper.TravelPackageMapper;
+import com.tpbs.packageservice.repository.TravelPackageRepository;
+import com.tpbs.packageservice.util.DurationUtil;
+import com.tpbs.packageservice.util.ServiceListUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Applies one price adjustment and/or field patch to every package matching a filter.
+ * Matching ids are read in keyset chunks of {@code packages.bulk-update.chunk-size};
+ * each chunk is changed with a single set-based UPDATE (plus a delete/insert of the
+ * package_services rows when services change) in its own transaction, and publishes
+ * one PackageBatchChangedEvent so the catalog, indexes and price tables refresh once
+ * per chunk. Chunks follow package id order, so a repriced row is never matched twice.
+ * The ids are read outside the chunk's transaction, so its statements repeat the
+ * filter and skip rows another writer moved out of it in the meantime. The result
+ * carries the last id of the last committed chunk; passing it back as
+ * {@code afterId} resumes the update after a failed chunk.
+ */
+@Slf4j
+@Component
+public class PackageBulkUpdater {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TravelPackageRepository packageRepository;
+    private final TravelPackageMapper packageMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public PackageBulkUpdater(EntityManager entityManager,
+                              TransactionTemplate transactionTemplate,
+                              TravelPackageRepository packageRepository,
+                              TravelPackageMapper packageMapper,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${packages.bulk-update.chunk-size:500}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.packageRepository = packageRepository;
+        this.packageMapper = packageMapper;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkUpdateResultDto update(BulkUpdateRequestDto request) {
+        Map<String, Object> assignments = assignments(request);
+        Set<String> services = request.getIncludedServices() != null
+                ? ServiceListUtil.keys(request.getIncludedServices()) : null;
+
+        long start = System.nanoTime();
+        int updated = 0;
+        int batches = 0;
+        String error = null;
+        Long afterId = request.getAfterId() != null ? request.getAfterId() : 0L;
+        Long lastProcessedId = request.getAfterId();
+        List<Long> requestedIds = request.getPackageIds() != null
+                ? new ArrayList<>(new TreeSet<>(request.getPackageIds()).tailSet(afterId, false)) : null;
+        int offset = 0;
+        while (true) {
+            List<Long> ids;
+            if (requestedIds != null) {
+                if (offset >= requestedIds.size()) {
+                    break;
+                }
+                List<Long> slice = requestedIds.subList(offset, Math.min(offset + chunkSize, requestedIds.size()));
+                offset += slice.size();
+                ids = packageRepository.findIdsForUpdateIn(slice, request.getAgentId(),
+                        request.getMinPrice(), request.getMaxPrice());
+                afterId = slice.get(slice.size() - 1);
+                if (ids.isEmpty()) {
+                    lastProcessedId = afterId;
+                    continue;
+                }
+            } else {
+                ids = packageRepository.findIdsForUpdate(request.getAgentId(), request.getMinPrice(),
+                        request.getMaxPrice(), afterId, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+            try {
+                updated += apply(ids, request, assignments, services);
+                batches++;
+                lastProcessedId = afterId;
+            } catch (RuntimeException e) {
+                log.warn("Bulk update chunk of {} packages failed: {}", ids.size(), e.getMessage());
+                error = "Chunk starting at package " + ids.get(0) + " failed ("
+                        + NestedExceptionUtils.getMostSpecificCause(e).getMessage() + ")";
+                break;
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Bulk updated {} packages in {} batches in {} ms", updated, batches, elapsedMillis);
+        return new BulkUpdateResultDto(updated, batches, elapsedMillis, error, lastProcessedId);
+    }
+
+    private int apply(List<Long> ids, BulkUpdateRequestDto request, Map<String, Object> assignments, Set<String> services) {
+        Map<String, Object> criteria = criteria(request);
+        Integer rows = transactionTemplate.execute(tx -> {
+            // Services first: the UPDATE may reprice the rows the price filter looks at
+            if (services != null) {
+                String matching = "SELECT package_id FROM travel_packages WHERE package_id IN (:ids)" + filter(criteria, true);
+                bind(entityManager.createNativeQuery("DELETE FROM package_services WHERE package_id IN (" + matching + ")"),
+                        ids, criteria).executeUpdate();
+                for (String service : services) {
+                    bind(entityManager.createNativeQuery("INSERT INTO package_services (package_id, service) " +
+                                    matching.replace("SELECT package_id", "SELECT package_id, :service")), ids, criteria)
+                            .setParameter("service", service)
+                            .executeUpdate();
+                }
+            }
+            StringBuilder jpql = new StringBuilder("UPDATE TravelPackage p SET ");
+            assignments.keySet().forEach(field -> jpql.append(assignment(field)).append(", "));
+            jpql.setLength(jpql.length() - 2);
+            jpql.append(" WHERE p.packageId IN :ids").append(filter(criteria, false));
+            Query update = bind(entityManager.createQuery(jpql.toString()), ids, criteria);
+            assignments.forEach(update::setParameter);
+            int count = update.executeUpdate();
+            // Delivered to the catalog and indexes once this chunk commits
+            eventPublisher.publishEvent(new PackageBatchChangedEvent(packageRepository.findAllById(ids).stream()
+                    .map(packageMapper::toDto)
+                    .map(dto -> new PackageChangedEvent(dto.getPackageId(), dto))
+                    .toList()));
+            return count;
+        });
+        return rows != null ? rows : 0;
+    }
+
+    // Parameter name -> value for the filter criteria that are set
+    private static Map<String, Object> criteria(BulkUpdateRequestDto request) {
+        Map<String, Object> criteria = new LinkedHashMap<>();
+        if (request.getAgentId() != null) {
+            criteria.put("agentId", request.getAgentId());
+        }
+        if (request.getMinPrice() != null) {
+            criteria.put("minPrice", request.getMinPrice());
+        }
+        if (request.getMaxPrice() != null) {
+            criteria.put("maxPrice", request.getMaxPrice());
+        }
+        return criteria;
+    }
+
+    private static String filter(Map<String, Object> criteria, boolean nativeSql) {
+        StringBuilder filter = new StringBuilder();
+        if (criteria.containsKey("agentId")) {
+            filter.append(nativeSql ? " AND agent_id = :agentId" : " AND p.agentId = :agentId");
+        }
+        if (criteria.containsKey("minPrice")) {
+            filter.append(nativeSql ? " AND price >= :minPrice" : " AND p.price >= :minPrice");
+        }
+        if (criteria.containsKey("maxPrice")) {
+            filter.append(nativeSql ? " AND price <= :maxPrice" : " AND p.price <= :maxPrice");
+        }
+        return filter.toString();
+    }
+
+    private static Query bind(Query query, List<Long> ids, Map<String, Object> criteria) {
+        query.setParameter("ids", ids);
+        criteria.forEach(query::setParameter);
+        return query;
+    }
+
+    // Parameter name -> value for the UPDATE's SET clause, in a fixed order
+    private static Map<String, Object> assignments(BulkUpdateRequestDto request) {
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        if (request.getPriceChangePercent() != null) {
+            assignments.put("factor", BigDecimal.ONE.add(request.getPriceChangePercent().divide(HUNDRED, MathContext.DECIMAL64)));
+        }
+        if (request.getDuration() != null) {
+            assignments.put("duration", request.getDuration());
+            assignments.put("durationDays", DurationUtil.parseDays(request.getDuration()));
+        }
+        if (request.getIncludedServices() != null) {
+            assignments.put("includedServices", request.getIncludedServices());
+        }
+        if (request.getImage() != null) {
+            assignments.put("image", request.getImage());
+        }
+        return assignments;
+    }
+
+    private static String assignment(String parameter) {
+        if ("factor".equals(parameter)) {
+            return "p.price = ROUND(p.price * :factor, 2)";
+        }
+        return "p." + parameter + " = :" + parameter;
+    }
+}
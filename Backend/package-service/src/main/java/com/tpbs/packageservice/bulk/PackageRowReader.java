@@ -0,0 +1,168 @@
+package com.tpbs.packageservice.bulk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpbs.packageservice.dto.TravelPackageDto;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads import rows one at a time from a JSON array or a CSV stream, so the request
+ * body is never held in memory. A row that cannot be read is returned with an error
+ * instead of aborting the import.
+ */
+interface PackageRowReader extends Closeable {
+
+    record Row(int number, TravelPackageDto travelPackage, String error) {
+    }
+
+    /** Next row, or null at end of input. */
+    Row next() throws IOException;
+
+    static PackageRowReader json(InputStream in, ObjectMapper mapper) throws IOException {
+        JsonParser parser = mapper.getFactory().createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("JSON import body must be an array of packages");
+        }
+        return new PackageRowReader() {
+            private int number;
+
+            @Override
+            public Row next() throws IOException {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) {
+                    return null;
+                }
+                number++;
+                // Read the element as a tree first so a bad field cannot desync the stream
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    return new Row(number, mapper.treeToValue(node, TravelPackageDto.class), null);
+                } catch (JsonProcessingException e) {
+                    return new Row(number, null, "Unreadable package: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException e) {
+                    return new Row(number, null, "Unreadable package: " + e.getMessage());
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                parser.close();
+            }
+        };
+    }
+
+    /**
+     * CSV with a header row naming the columns (title, description, duration, price,
+     * includedServices, image; case-insensitive). RFC 4180 quoting is supported, so
+     * includedServices can contain commas.
+     */
+    static PackageRowReader csv(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = readRecord(reader);
+        if (header == null) {
+            throw new IllegalArgumentException("CSV import body is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return new PackageRowReader() {
+            private int number;
+
+            @Override
+            public Row next() throws IOException {
+                List<String> record = readRecord(reader);
+                while (record != null && record.size() == 1 && record.get(0).isBlank()) {
+                    record = readRecord(reader);
+                }
+                if (record == null) {
+                    return null;
+                }
+                number++;
+                TravelPackageDto dto = new TravelPackageDto();
+                dto.setTitle(field(record, "title"));
+                dto.setDescription(field(record, "description"));
+                dto.setDuration(field(record, "duration"));
+                dto.setIncludedServices(field(record, "includedservices"));
+                dto.setImage(field(record, "image"));
+                String price = field(record, "price");
+                if (price != null) {
+                    try {
+                        // String form keeps the exact decimal (the Number overload goes through double)
+                        dto.setPrice((Object) price);
+                    } catch (NumberFormatException e) {
+                        return new Row(number, null, "Invalid price '" + price + "'");
+                    }
+                }
+                return new Row(number, dto, null);
+            }
+
+            private String field(List<String> record, String column) {
+                Integer index = columns.get(column);
+                if (index == null || index >= record.size()) {
+                    return null;
+                }
+                String value = record.get(index).trim();
+                return value.isEmpty() ? null : value;
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    private static List<String> readRecord(Reader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int peek = reader.read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
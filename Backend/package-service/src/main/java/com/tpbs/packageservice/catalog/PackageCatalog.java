@@ -0,0 +1,139 @@
+package com.tpbs.packageservice.catalog;
+
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.event.PackageBatchChangedEvent;
+import com.tpbs.packageservice.event.PackageChangedEvent;
+import com.tpbs.packageservice.mapper.TravelPackageMapper;
+import com.tpbs.packageservice.repository.TravelPackageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Immutable, versioned copy of the whole catalog. Readers dereference one volatile
+ * field and never lock; writers (committed package changes) build a new snapshot
+ * copy-on-write and publish it atomically. MySQL is only read once, at warm-up.
+ *
+ * Returned DTOs are shared between requests and must be treated as read-only.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PackageCatalog {
+
+    public record Snapshot(long version,
+                           List<TravelPackageDto> packages,
+                           Map<Long, TravelPackageDto> byId,
+                           Map<Long, List<TravelPackageDto>> byAgent) {
+
+        /** Strong ETag; includes the startup epoch so versions never repeat across restarts. */
+        public String etag() {
+            return "\"" + EPOCH + "-" + version + "\"";
+        }
+
+        public Optional<TravelPackageDto> get(Long packageId) {
+            return Optional.ofNullable(byId.get(packageId));
+        }
+
+        public List<TravelPackageDto> byAgent(Long agentId) {
+            return byAgent.getOrDefault(agentId, List.of());
+        }
+    }
+
+    private static final long EPOCH = System.currentTimeMillis();
+
+    private final TravelPackageRepository packageRepository;
+    private final TravelPackageMapper packageMapper;
+
+    private volatile Snapshot current;
+    // Changes committed while the warm-up load was running; replayed once it finishes
+    private final List<PackageChangedEvent> pending = new ArrayList<>();
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /** Current snapshot, or empty while the catalog is still warming up. */
+    public Optional<Snapshot> snapshot() {
+        return Optional.ofNullable(current);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<TravelPackageDto> loaded = packageRepository.findAll().stream().map(packageMapper::toDto).toList();
+        synchronized (this) {
+            TreeMap<Long, TravelPackageDto> byId = new TreeMap<>();
+            loaded.forEach(p -> byId.put(p.getPackageId(), p));
+            pending.forEach(event -> apply(byId, event));
+            pending.clear();
+            current = freeze(1, byId);
+        }
+        log.info("Package catalog snapshot loaded with {} packages", loaded.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPackageChanged(PackageChangedEvent event) {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            pending.add(event);
+            return;
+        }
+        TreeMap<Long, TravelPackageDto> byId = new TreeMap<>(snapshot.byId());
+        apply(byId, event);
+        current = freeze(snapshot.version() + 1, byId);
+        log.debug("Package catalog advanced to version {} after change to package {}",
+                snapshot.version() + 1, event.packageId());
+    }
+
+    // One copy and one version bump for the whole batch
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPackagesChanged(PackageBatchChangedEvent batch) {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            pending.addAll(batch.changes());
+            return;
+        }
+        TreeMap<Long, TravelPackageDto> byId = new TreeMap<>(snapshot.byId());
+        batch.changes().forEach(event -> apply(byId, event));
+        current = freeze(snapshot.version() + 1, byId);
+        log.debug("Package catalog advanced to version {} after {} changes",
+                snapshot.version() + 1, batch.changes().size());
+    }
+
+    private static void apply(Map<Long, TravelPackageDto> byId, PackageChangedEvent event) {
+        if (event.isDeleted()) {
+            byId.remove(event.packageId());
+        } else {
+            byId.put(event.packageId(), copyOf(event.travelPackage()));
+        }
+    }
+
+    private static Snapshot freeze(long version, TreeMap<Long, TravelPackageDto> byId) {
+        Map<Long, List<TravelPackageDto>> byAgent = new HashMap<>();
+        for (TravelPackageDto p : byId.values()) {
+            byAgent.computeIfAbsent(p.getAgentId(), a -> new ArrayList<>()).add(p);
+        }
+        byAgent.replaceAll((agentId, packages) -> List.copyOf(packages));
+        return new Snapshot(version,
+                List.copyOf(byId.values()),
+                Collections.unmodifiableMap(byId),
+                Map.copyOf(byAgent));
+    }
+
+    // The event carries the instance handed back to the caller; keep our own copy
+    private static TravelPackageDto copyOf(TravelPackageDto p) {
+        return new TravelPackageDto(p.getPackageId(), p.getTitle(), p.getDescription(), p.getDuration(),
+                p.getPrice(), p.getIncludedServices(), p.getAgentId(), p.getImage());
+    }
+}
@@ -4,7 +4,10 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "booking-service", url = "${feign.clients.booking-service.url:http://localhost:8083}")
@@ -12,4 +15,10 @@ public interface BookingServiceClient {
     
     @GetMapping("/api/bookings/package/{packageId}")
     ResponseEntity<Map<String, Object>> getBookingsByPackage(@PathVariable("packageId") Long packageId);
+    
+    @GetMapping("/api/bookings/agent/{agentId}/stats")
+    ResponseEntity<Map<String, Object>> getAgentStats(@PathVariable("agentId") Long agentId);
+    
+    @PostMapping("/api/bookings/package/batch")
+    ResponseEntity<Map<String, Object>> getBookingsByPackages(@RequestBody List<Long> packageIds);
 }
@@ -4,7 +4,10 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "payment-service", url = "${feign.clients.payment-service.url:http://localhost:8084}")
@@ -15,4 +18,7 @@ public interface PaymentServiceClient {
     
     @GetMapping("/api/payments/booking/{bookingId}")
     ResponseEntity<Map<String, Object>> getPaymentsByBookingId(@PathVariable("bookingId") Long bookingId);
+    
+    @PostMapping("/api/payments/batch")
+    ResponseEntity<Map<String, Object>> getPaymentsByIds(@RequestBody List<Long> ids);
 }
\ No newline at end of file
@@ -4,8 +4,12 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "user-service", url = "${feign.clients.user-service.url:http://localhost:8081}")
@@ -16,4 +20,18 @@ public interface UserServiceClient {
         @PathVariable("id") Long id,
         @RequestHeader("X-Service-Call") String serviceCall
     );
+    
+    @PostMapping("/api/users/batch")
+    ResponseEntity<Map<String, Object>> getUsersByIds(
+        @RequestBody List<Long> ids,
+        @RequestHeader("X-Service-Call") String serviceCall
+    );
+    
+    @GetMapping("/api/users/changes")
+    ResponseEntity<Map<String, Object>> getUserChanges(
+        @RequestParam("since") long since,
+        @RequestParam("epoch") String epoch,
+        @RequestParam("waitSeconds") int waitSeconds,
+        @RequestHeader("X-Service-Call") String serviceCall
+    );
 }
@@ -0,0 +1,68 @@
+package com.tpbs.packageservice.config;
+
+import com.tpbs.packageservice.util.DurationUtil;
+import com.tpbs.packageservice.util.ServiceListUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Migration for the structured duration_days column and the package_services join
+ * table (both created by Hibernate's schema update). Fills them for rows written before
+ * they existed, or loaded straight into travel_packages by data.sql; rows the mapper
+ * wrote are already in sync and are skipped, so this is a no-op on later startups.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class PackageColumnBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void backfill() {
+        List<Object[]> durations = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT package_id, duration FROM travel_packages WHERE duration_days IS NULL",
+                rs -> {
+                    Integer days = DurationUtil.parseDays(rs.getString("duration"));
+                    if (days != null) {
+                        durations.add(new Object[]{days, rs.getLong("package_id")});
+                    }
+                });
+        jdbcTemplate.batchUpdate("UPDATE travel_packages SET duration_days = ? WHERE package_id = ?",
+                durations, BATCH_SIZE, (ps, row) -> {
+                    ps.setInt(1, (Integer) row[0]);
+                    ps.setLong(2, (Long) row[1]);
+                });
+
+        List<Object[]> services = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT p.package_id, p.included_services FROM travel_packages p " +
+                "WHERE p.included_services IS NOT NULL " +
+                "AND NOT EXISTS (SELECT 1 FROM package_services s WHERE s.package_id = p.package_id)",
+                rs -> {
+                    long packageId = rs.getLong("package_id");
+                    for (String service : ServiceListUtil.keys(rs.getString("included_services"))) {
+                        services.add(new Object[]{packageId, service});
+                    }
+                });
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO package_services (package_id, service) VALUES (?, ?)",
+                services, BATCH_SIZE, (ps, row) -> {
+                    ps.setLong(1, (Long) row[0]);
+                    ps.setString(2, (String) row[1]);
+                });
+
+        log.info("Backfilled duration_days for {} package(s) and {} package service row(s)",
+                durations.size(), services.size());
+    }
+}
@@ -0,0 +1,36 @@
+package com.tpbs.packageservice.config;
+
+import com.tpbs.packageservice.model.TravelPackage;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the pooled id generator past ids already in travel_packages (rows inserted
+ * under the old AUTO_INCREMENT strategy, or by data.sql). The pooled optimizer hands
+ * out {@code next_val - allocationSize + 1 .. next_val}, so next_val must be at least
+ * {@code max(package_id) + allocationSize}. Runs after Hibernate has created the table.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class PackageIdGeneratorAligner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void align() {
+        int updated = jdbcTemplate.update(
+                "INSERT INTO id_generators (sequence_name, next_val) " +
+                "SELECT 'travel_packages', COALESCE(MAX(package_id), 0) + ? FROM travel_packages " +
+                "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))",
+                TravelPackage.ID_ALLOCATION_SIZE);
+        Long nextVal = jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generators WHERE sequence_name = 'travel_packages'", Long.class);
+        log.info("Package id generator at {} ({} row(s) changed)", nextVal, updated);
+    }
+}
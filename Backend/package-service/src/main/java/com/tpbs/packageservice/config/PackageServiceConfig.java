@@ -1,13 +1,30 @@
 package com.tpbs.packageservice.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Configuration
 @EnableJpaRepositories(basePackages = "com.tpbs.packageservice.repository")
 @EnableTransactionManagement
 public class PackageServiceConfig {
     // CORS is handled centrally by API Gateway
     // No individual service CORS configuration needed
-}
\ No newline at end of file
+
+    // Runs the concurrent batch lookups of the booking enrichment pipeline
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService enrichmentExecutor(@Value("${packages.enrichment.threads:8}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "package-enrichment-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
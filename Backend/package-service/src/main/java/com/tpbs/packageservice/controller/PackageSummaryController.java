@@ -0,0 +1,72 @@
+package com.tpbs.packageservice.controller;
+
+import com.tpbs.packageservice.dto.BookingStatsDto;
+import com.tpbs.packageservice.dto.PackageSummaryDto;
+import com.tpbs.packageservice.dto.ReviewStatsDto;
+import com.tpbs.packageservice.service.PackageSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/packages")
+@RequiredArgsConstructor
+@Slf4j
+public class PackageSummaryController {
+    
+    private final PackageSummaryService summaryService;
+    
+    // Package plus rating and booking totals in one read, for the package detail page
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<Map<String, Object>> getSummary(@PathVariable("id") Long id) {
+        PackageSummaryDto summary = summaryService.getSummary(id);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", summary);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Called by review-service with the current totals of packages whose reviews changed
+    @PutMapping("/summaries/reviews")
+    public ResponseEntity<Map<String, Object>> updateReviewStats(
+            @RequestBody List<ReviewStatsDto> stats,
+            @RequestHeader(value = "X-Service-Call", required = false) String serviceCall) {
+        if (!"internal".equalsIgnoreCase(serviceCall)) {
+            return forbidden();
+        }
+        int updated = summaryService.updateReviewStats(stats);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", updated);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Called by booking-service with the current totals of packages whose bookings changed
+    @PutMapping("/summaries/bookings")
+    public ResponseEntity<Map<String, Object>> updateBookingStats(
+            @RequestBody List<BookingStatsDto> stats,
+            @RequestHeader(value = "X-Service-Call", required = false) String serviceCall) {
+        if (!"internal".equalsIgnoreCase(serviceCall)) {
+            return forbidden();
+        }
+        int updated = summaryService.updateBookingStats(stats);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", updated);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Totals are only ever reported by review-service and booking-service
+    private static ResponseEntity<Map<String, Object>> forbidden() {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("error", "Access denied. Internal service calls only.");
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+    }
+}
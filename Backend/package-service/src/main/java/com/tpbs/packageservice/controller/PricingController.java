@@ -0,0 +1,138 @@
+package com.tpbs.packageservice.controller;
+
+import com.tpbs.packageservice.dto.PriceQuoteDto;
+import com.tpbs.packageservice.dto.PricingRuleDto;
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.service.PricingService;
+import com.tpbs.packageservice.service.TravelPackageService;
+import com.tpbs.packageservice.util.JwtUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/packages")
+@RequiredArgsConstructor
+@Slf4j
+public class PricingController {
+    
+    private final PricingService pricingService;
+    private final TravelPackageService packageService;
+    private final JwtUtil jwtUtil;
+    
+    @GetMapping("/{id}/price")
+    public ResponseEntity<Map<String, Object>> quote(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        PriceQuoteDto quote = pricingService.quote(id, from, to);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", quote);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Rules for one package, or the global rules when packageId is omitted
+    @GetMapping("/pricing/rules")
+    public ResponseEntity<Map<String, Object>> getRules(
+            @RequestParam(value = "packageId", required = false) Long packageId) {
+        List<PricingRuleDto> rules = pricingService.getRules(packageId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", rules);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/pricing/rules")
+    public ResponseEntity<Map<String, Object>> createRule(
+            @RequestBody PricingRuleDto ruleDto,
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        ResponseEntity<Map<String, Object>> denied = checkAccess(ruleDto.getPackageId(), authHeader, role);
+        if (denied != null) {
+            return denied;
+        }
+        PricingRuleDto created = pricingService.createRule(ruleDto);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", created);
+        response.put("success", true);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @DeleteMapping("/pricing/rules/{ruleId}")
+    public ResponseEntity<Map<String, Object>> deleteRule(
+            @PathVariable("ruleId") Long ruleId,
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        PricingRuleDto rule = pricingService.getRule(ruleId);
+        ResponseEntity<Map<String, Object>> denied = checkAccess(rule.getPackageId(), authHeader, role);
+        if (denied != null) {
+            return denied;
+        }
+        pricingService.deleteRule(ruleId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Pricing rule deleted successfully");
+        return ResponseEntity.ok(response);
+    }
+    
+    // Called by the service that tracks departures' sold capacity
+    @PutMapping("/{id}/occupancy")
+    public ResponseEntity<Map<String, Object>> updateOccupancy(
+            @PathVariable("id") Long id,
+            @RequestBody Map<String, String> body,
+            @RequestHeader(value = "X-Service-Call", required = false) String serviceCall) {
+        // Occupancy changes the prices quoted to everyone, so only booking-service may report it
+        if (!"internal".equalsIgnoreCase(serviceCall)) {
+            return error(HttpStatus.FORBIDDEN, "Access denied. Internal service calls only.");
+        }
+        LocalDate departureDate;
+        BigDecimal occupancy;
+        try {
+            departureDate = body.get("departureDate") != null ? LocalDate.parse(body.get("departureDate")) : null;
+            occupancy = body.get("occupancy") != null ? new BigDecimal(body.get("occupancy")) : null;
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return error(HttpStatus.BAD_REQUEST, "departureDate must be YYYY-MM-DD and occupancy a number");
+        }
+        pricingService.updateOccupancy(id, departureDate, occupancy);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Admins manage any rule; agents only rules of their own packages; global rules are admin-only
+    private ResponseEntity<Map<String, Object>> checkAccess(Long packageId, String authHeader, String role) {
+        if ("admin".equalsIgnoreCase(role)) {
+            return null;
+        }
+        Long agentId = jwtUtil.extractUserIdFromAuthHeader(authHeader);
+        if (agentId == null) {
+            return error(HttpStatus.UNAUTHORIZED, "Invalid or missing authentication token");
+        }
+        if (packageId == null) {
+            return error(HttpStatus.FORBIDDEN, "Access denied. Admin role required for global pricing rules.");
+        }
+        TravelPackageDto travelPackage = packageService.getPackageById(packageId);
+        if (!travelPackage.getAgentId().equals(agentId)) {
+            return error(HttpStatus.FORBIDDEN, "You can only manage pricing of your own packages");
+        }
+        return null;
+    }
+    
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("error", message);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -1,8 +1,17 @@
 package com.tpbs.packageservice.controller;
 
+import com.tpbs.packageservice.dto.BulkUpdateRequestDto;
+import com.tpbs.packageservice.dto.BulkUpdateResultDto;
+import com.tpbs.packageservice.dto.FacetQueryResultDto;
+import com.tpbs.packageservice.dto.ImportResultDto;
+import com.tpbs.packageservice.dto.PackagePageDto;
+import com.tpbs.packageservice.dto.SimilarPackageDto;
+import com.tpbs.packageservice.dto.SuggestionDto;
 import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.dto.TrendingPackageDto;
 import com.tpbs.packageservice.service.TravelPackageService;
 import com.tpbs.packageservice.util.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +19,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
@@ -21,37 +31,90 @@ import java.util.Map;
 @Slf4j
 public class TravelPackageController {
     
+    private static final int MAX_BATCH_IDS = 1000;
+    
     private final TravelPackageService packageService;
     private final JwtUtil jwtUtil;
     
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllPackages() {
+    public ResponseEntity<Map<String, Object>> getAllPackages(
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+        // Paged mode when the caller asks for it; plain list kept for existing clients
+        if (sort != null || cursor != null || limit != null) {
+            log.debug("Fetching package page sorted by {} after cursor {}", sort, cursor);
+            PackagePageDto page = packageService.getPackagesPage(null, sort, cursor, limit);
+            response.put("data", page);
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        }
+        
         log.debug("Fetching all packages");
+        // Read the version before the data so the ETag never claims newer data than the body
+        String etag = packageService.getCatalogETag();
         List<TravelPackageDto> packages = packageService.getAllPackages();
-        Map<String, Object> response = new HashMap<>();
         response.put("data", packages);
         response.put("success", true);
-        return ResponseEntity.ok(response);
+        return withETag(response, etag);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getPackageById(@PathVariable("id") Long id) {
+    public ResponseEntity<Map<String, Object>> getPackageById(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = "X-Service-Call", required = false) String serviceCall) {
         log.debug("Fetching package with id: {}", id);
+        String etag = packageService.getCatalogETag();
         TravelPackageDto packageDto = packageService.getPackageById(id);
+        // Lookups made by other services are not customer views
+        if (!"internal".equalsIgnoreCase(serviceCall)) {
+            packageService.recordPackageView(id);
+        }
         Map<String, Object> response = new HashMap<>();
         response.put("data", packageDto);
         response.put("success", true);
+        return withETag(response, etag);
+    }
+    
+    // Id -> package for up to MAX_BATCH_IDS ids; used by other services to enrich list pages
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getPackagesByIds(@RequestBody List<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "At most " + MAX_BATCH_IDS + " ids per batch");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        Map<Long, TravelPackageDto> packages = packageService.getPackagesByIds(ids);
+        log.debug("Batch lookup returned {} of {} requested packages", packages.size(), ids.size());
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", packages);
+        response.put("success", true);
         return ResponseEntity.ok(response);
     }
     
     @GetMapping("/agent/{agentId}")
-    public ResponseEntity<Map<String, Object>> getPackagesByAgent(@PathVariable("agentId") Long agentId) {
+    public ResponseEntity<Map<String, Object>> getPackagesByAgent(
+            @PathVariable("agentId") Long agentId,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+        if (sort != null || cursor != null || limit != null) {
+            log.debug("Fetching package page for agent {} sorted by {} after cursor {}", agentId, sort, cursor);
+            PackagePageDto page = packageService.getPackagesPage(agentId, sort, cursor, limit);
+            response.put("data", page);
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        }
+        
         log.debug("Fetching packages for agent: {}", agentId);
+        String etag = packageService.getCatalogETag();
         List<TravelPackageDto> packages = packageService.getPackagesByAgent(agentId);
-        Map<String, Object> response = new HashMap<>();
         response.put("data", packages);
         response.put("success", true);
-        return ResponseEntity.ok(response);
+        return withETag(response, etag);
     }
     
     @GetMapping("/my-packages")
@@ -122,6 +185,57 @@ public class TravelPackageController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    // Bulk import: a JSON array of packages, or CSV (Content-Type: text/csv) with a header row
+    @PostMapping(value = "/import", consumes = {"application/json", "text/csv"})
+    public ResponseEntity<Map<String, Object>> importPackages(
+            HttpServletRequest request,
+            @RequestHeader("Authorization") String authHeader) throws IOException {
+        Long agentId = jwtUtil.extractUserIdFromAuthHeader(authHeader);
+        if (agentId == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "Invalid or missing authentication token");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        }
+        
+        ImportResultDto result = packageService.importPackages(request.getInputStream(), request.getContentType(), agentId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", result);
+        response.put("success", result.getFailed() == 0);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Price adjustment and/or field patch for every package matching the filter;
+    // agents only reach their own packages, admins may target any agent or all packages
+    @PatchMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> bulkUpdatePackages(
+            @RequestBody BulkUpdateRequestDto request,
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        if (!"admin".equalsIgnoreCase(role)) {
+            Long agentId = jwtUtil.extractUserIdFromAuthHeader(authHeader);
+            if (agentId == null) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("error", "Invalid or missing authentication token");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+            }
+            if (request.getAgentId() != null && !request.getAgentId().equals(agentId)) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("error", "You can only update your own packages");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+            }
+            request.setAgentId(agentId);
+        }
+        
+        BulkUpdateResultDto result = packageService.bulkUpdatePackages(request);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", result);
+        response.put("success", result.getError() == null);
+        return ResponseEntity.ok(response);
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<Map<String, Object>> updatePackage(
             @PathVariable("id") Long id, 
@@ -223,6 +337,73 @@ public class TravelPackageController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggest(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        List<SuggestionDto> suggestions = packageService.suggest(prefix, limit);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", suggestions);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/trending")
+    public ResponseEntity<Map<String, Object>> getTrendingPackages(
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        List<TrendingPackageDto> trending = packageService.getTrendingPackages(limit);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", trending);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<Map<String, Object>> getSimilarPackages(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        List<SimilarPackageDto> similar = packageService.getSimilarPackages(id, limit);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", similar);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Called by booking-service after a booking is created
+    @PostMapping("/{id}/booking-signal")
+    public ResponseEntity<Map<String, Object>> recordBookingSignal(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = "X-Service-Call", required = false) String serviceCall) {
+        if (!"internal".equalsIgnoreCase(serviceCall)) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "Access denied. Internal service calls only.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+        packageService.recordPackageBooked(id);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Object>> filterPackages(
+            @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+            @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+            @RequestParam(value = "priceBand", required = false) List<String> priceBands,
+            @RequestParam(value = "minDays", required = false) Integer minDays,
+            @RequestParam(value = "maxDays", required = false) Integer maxDays,
+            @RequestParam(value = "services", required = false) List<String> services,
+            @RequestParam(value = "servicesMatch", defaultValue = "all") String servicesMatch,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        FacetQueryResultDto result = packageService.filterPackages(minPrice, maxPrice, priceBands,
+                minDays, maxDays, services, !"any".equalsIgnoreCase(servicesMatch), limit);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", result);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
     // Enhanced endpoints with cross-service data
     @GetMapping("/{id}/with-details")
     public ResponseEntity<Map<String, Object>> getPackageWithDetails(@PathVariable("id") Long id) {
@@ -262,4 +443,12 @@ public class TravelPackageController {
         response.put("success", true);
         return ResponseEntity.ok(response);
     }
+    
+    // Spring answers 304 Not Modified itself when If-None-Match matches the ETag
+    private ResponseEntity<Map<String, Object>> withETag(Map<String, Object> body, String etag) {
+        if (etag == null) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.tpbs.packageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStatsDto {
+    
+    private Long packageId;
+    private long bookingCount;
+    private long confirmedCount;
+}
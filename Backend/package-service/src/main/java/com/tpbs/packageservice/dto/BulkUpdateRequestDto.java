@@ -0,0 +1,30 @@
+package com.tpbs.packageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateRequestDto {
+    
+    // Filter: every given criterion must match. Agents are always scoped to their own packages
+    private Long agentId;
+    private List<Long> packageIds;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    
+    // Resume point: only packages with a greater id are updated (lastProcessedId of a failed run)
+    private Long afterId;
+    
+    // Changes: prices are multiplied by (1 + priceChangePercent / 100) and rounded to cents;
+    // other non-null fields replace the current value
+    private BigDecimal priceChangePercent;
+    private String duration;
+    private String includedServices;
+    private String image;
+}
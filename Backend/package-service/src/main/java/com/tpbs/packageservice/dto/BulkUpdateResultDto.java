@@ -0,0 +1,21 @@
+package com.tpbs.packageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateResultDto {
+    
+    private int updated;
+    private int batches;
+    private long elapsedMillis;
+    
+    // Set when a batch failed; earlier batches stay committed and later ones are not attempted
+    private String error;
+    
+    // Id of the last package of the last committed batch; pass it as afterId to resume
+    private Long lastProcessedId;
+}
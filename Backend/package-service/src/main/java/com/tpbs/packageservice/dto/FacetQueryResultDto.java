@@ -0,0 +1,22 @@
+package com.tpbs.packageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetQueryResultDto {
+    
+    private List<TravelPackageDto> packages;
+    
+    // Number of packages matching the filters (packages may be truncated by the limit)
+    private long total;
+    
+    // Facet name -> value -> number of matching packages with that value
+    private Map<String, Map<String, Long>> facets;
+}
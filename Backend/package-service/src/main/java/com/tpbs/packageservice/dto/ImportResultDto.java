@@ -0,0 +1,31 @@
+package com.tpbs.packageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDto {
+    
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    
+    // Capped at packages.import.max-reported-errors; "failed" always has the full count
+    private List<RowError> errors;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        // 1-based data row number (header and array brackets not counted)
+        private int row;
+        private String message;
+    }
+}
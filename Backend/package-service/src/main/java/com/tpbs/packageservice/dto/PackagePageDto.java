@@ -0,0 +1,22 @@
+package com.tpbs.packageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackagePageDto {
+    
+    private List<TravelPackageDto> packages;
+    
+    // Opaque continuation token; pass back as "cursor" (with the same sort) to fetch the next page
+    private String nextCursor;
+    
+    private boolean hasMore;
+    private int limit;
+    private String sort;
+}
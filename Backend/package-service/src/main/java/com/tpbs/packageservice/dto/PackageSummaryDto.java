@@ -0,0 +1,23 @@
+package com.tpbs.packageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageSummaryDto {
+    
+    private TravelPackageDto travelPackage;
+    private BigDecimal averageRating;
+    private long reviewCount;
+    private long bookingCount;
+    private long confirmedCount;
+    
+    // When review-service or booking-service last reported; null if neither has yet
+    private LocalDateTime updatedAt;
+}
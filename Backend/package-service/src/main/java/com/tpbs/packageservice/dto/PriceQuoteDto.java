@@ -0,0 +1,35 @@
+package com.tpbs.packageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteDto {
+    
+    private Long packageId;
+    
+    // The package's list price, before any pricing rule
+    private BigDecimal basePrice;
+    
+    private BigDecimal lowestPrice;
+    
+    private LocalDate lowestPriceDate;
+    
+    // One entry per departure date in the requested range
+    private List<DailyPrice> prices;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyPrice {
+        private LocalDate date;
+        private BigDecimal price;
+    }
+}
@@ -0,0 +1,33 @@
+package com.tpbs.packageservice.dto;
+
+import com.tpbs.packageservice.model.PricingRuleType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingRuleDto {
+    
+    private Long ruleId;
+    
+    // Null for a rule that applies to every package (admin only)
+    private Long packageId;
+    
+    private PricingRuleType type;
+    
+    private LocalDate startDate;
+    
+    private LocalDate endDate;
+    
+    // e.g. 1.25 for +25%, 0.9 for -10%
+    private BigDecimal multiplier;
+    
+    private Integer minDaysAhead;
+    
+    private BigDecimal minOccupancy;
+}
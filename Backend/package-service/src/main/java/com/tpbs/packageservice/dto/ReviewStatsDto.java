@@ -0,0 +1,17 @@
+package com.tpbs.packageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewStatsDto {
+    
+    private Long packageId;
+    private BigDecimal averageRating;
+    private long reviewCount;
+}
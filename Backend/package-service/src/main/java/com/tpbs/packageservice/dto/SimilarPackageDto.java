@@ -0,0 +1,16 @@
+package com.tpbs.packageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarPackageDto {
+    
+    private TravelPackageDto travelPackage;
+    
+    // Cosine similarity of the packages' TF-IDF vectors, 0..1
+    private double similarity;
+}
@@ -0,0 +1,19 @@
+package com.tpbs.packageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+    
+    private String text;
+    
+    // "package" for a package title, "destination" for a place name
+    private String type;
+    
+    // Set for package suggestions only
+    private Long packageId;
+}
@@ -0,0 +1,16 @@
+package com.tpbs.packageservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingPackageDto {
+    
+    private TravelPackageDto travelPackage;
+    
+    // Time-decayed weighted sum of recent views and bookings
+    private double score;
+}
@@ -0,0 +1,211 @@
+package com.tpbs.packageservice.enrichment;
+
+import com.tpbs.packageservice.client.BookingServiceClient;
+import com.tpbs.packageservice.client.PaymentServiceClient;
+import com.tpbs.common.client.UserReplica;
+import com.tpbs.packageservice.client.UserServiceClient;
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Enriches the bookings of a set of packages with user and payment details in a
+ * fixed number of round trips: one booking lookup for all packages, then the
+ * deduplicated user and payment ids fetched concurrently in batches, then an
+ * in-memory join. Each stage is timed under {@code packages.enrichment.stage}.
+ */
+@Slf4j
+@Component
+public class BookingEnrichmentPipeline {
+
+    public record Result(List<Map<String, Object>> bookings,
+                         int totalBookings,
+                         int confirmedBookings,
+                         double totalRevenue,
+                         Map<String, Long> stageMillis) {
+    }
+
+    private final BookingServiceClient bookingServiceClient;
+    private final UserServiceClient userServiceClient;
+    private final PaymentServiceClient paymentServiceClient;
+    private final UserReplica userReplica;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+
+    public BookingEnrichmentPipeline(BookingServiceClient bookingServiceClient,
+                                     UserServiceClient userServiceClient,
+                                     PaymentServiceClient paymentServiceClient,
+                                     UserReplica userReplica,
+                                     @Qualifier("enrichmentExecutor") ExecutorService executor,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${packages.enrichment.batch-size:500}") int batchSize) {
+        this.bookingServiceClient = bookingServiceClient;
+        this.userServiceClient = userServiceClient;
+        this.paymentServiceClient = paymentServiceClient;
+        this.userReplica = userReplica;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+    }
+
+    public Result enrich(List<TravelPackageDto> packages) {
+        Map<String, Long> stageMillis = new LinkedHashMap<>();
+        if (packages.isEmpty()) {
+            return new Result(List.of(), 0, 0, 0.0, stageMillis);
+        }
+        Map<Long, TravelPackageDto> packagesById = new HashMap<>();
+        packages.forEach(p -> packagesById.put(p.getPackageId(), p));
+
+        // Stage 1: every booking of every package in one call
+        List<Map<String, Object>> bookings = timed("bookings", stageMillis,
+                () -> fetchBookings(new ArrayList<>(packagesById.keySet())));
+
+        // Stage 2: dedupe ids, resolve users from the replica first, batch-fetch the rest concurrently
+        Map<Long, Map<String, Object>> users = new HashMap<>();
+        Set<Long> missingUserIds = new LinkedHashSet<>();
+        Set<Long> paymentIds = new LinkedHashSet<>();
+        for (Map<String, Object> booking : bookings) {
+            Long userId = asLong(booking.get("userId"));
+            if (userId != null && !users.containsKey(userId)) {
+                userReplica.get(userId).ifPresentOrElse(u -> users.put(userId, u), () -> missingUserIds.add(userId));
+            }
+            Long paymentId = asLong(booking.get("paymentId"));
+            if (paymentId != null) {
+                paymentIds.add(paymentId);
+            }
+        }
+        Map<Long, Map<String, Object>> payments = timed("lookups", stageMillis, () -> {
+            CompletableFuture<Map<Long, Map<String, Object>>> userLookup = fetchAll(missingUserIds, "userId",
+                    chunk -> userServiceClient.getUsersByIds(chunk, "internal"));
+            CompletableFuture<Map<Long, Map<String, Object>>> paymentLookup = fetchAll(paymentIds, "paymentId",
+                    paymentServiceClient::getPaymentsByIds);
+            users.putAll(userLookup.join());
+            return paymentLookup.join();
+        });
+
+        // Stage 3: join in memory
+        return timed("join", stageMillis, () -> join(bookings, packagesById, users, payments, stageMillis));
+    }
+
+    private Result join(List<Map<String, Object>> bookings,
+                        Map<Long, TravelPackageDto> packagesById,
+                        Map<Long, Map<String, Object>> users,
+                        Map<Long, Map<String, Object>> payments,
+                        Map<String, Long> stageMillis) {
+        List<Map<String, Object>> enriched = new ArrayList<>(bookings.size());
+        int confirmed = 0;
+        double revenue = 0.0;
+        for (Map<String, Object> booking : bookings) {
+            Map<String, Object> enrichedBooking = new HashMap<>(booking);
+            enrichedBooking.put("packageInfo", packagesById.get(asLong(booking.get("packageId"))));
+
+            Long userId = asLong(booking.get("userId"));
+            if (userId != null) {
+                enrichedBooking.put("userInfo", users.getOrDefault(userId, Map.of("name", "Unknown User", "id", userId)));
+            }
+
+            Long paymentId = asLong(booking.get("paymentId"));
+            if (paymentId != null) {
+                Map<String, Object> payment = payments.get(paymentId);
+                if (payment == null) {
+                    enrichedBooking.put("paymentInfo", Map.of("status", "UNKNOWN", "amount", 0));
+                } else {
+                    enrichedBooking.put("paymentInfo", payment);
+                    if ("COMPLETED".equalsIgnoreCase((String) payment.get("status"))
+                            && payment.get("amount") instanceof Number amount) {
+                        revenue += amount.doubleValue();
+                    }
+                }
+            }
+
+            if ("confirmed".equals(booking.get("status"))) {
+                confirmed++;
+            }
+            enriched.add(enrichedBooking);
+        }
+        return new Result(enriched, bookings.size(), confirmed, revenue, stageMillis);
+    }
+
+    private List<Map<String, Object>> fetchBookings(List<Long> packageIds) {
+        try {
+            List<Map<String, Object>> bookings = new ArrayList<>();
+            for (List<Long> chunk : chunks(packageIds)) {
+                bookings.addAll(dataList(bookingServiceClient.getBookingsByPackages(chunk)));
+            }
+            return bookings;
+        } catch (Exception e) {
+            log.warn("Could not fetch bookings for {} packages: {}", packageIds.size(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    /** Fetches all ids in concurrent chunks; failed chunks are logged and left out of the result. */
+    private CompletableFuture<Map<Long, Map<String, Object>>> fetchAll(
+            Collection<Long> ids, String idField, Function<List<Long>, ResponseEntity<Map<String, Object>>> call) {
+        List<CompletableFuture<List<Map<String, Object>>>> futures = chunks(new ArrayList<>(ids)).stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> dataList(call.apply(chunk)), executor)
+                        .exceptionally(e -> {
+                            log.warn("Batch lookup of {} {} values failed: {}", chunk.size(), idField, e.getMessage());
+                            return List.of();
+                        }))
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Map<Long, Map<String, Object>> byId = new HashMap<>();
+            futures.forEach(f -> f.join().forEach(row -> byId.put(asLong(row.get(idField)), row)));
+            return byId;
+        });
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + batchSize)));
+        }
+        return chunks;
+    }
+
+    private <T> T timed(String stage, Map<String, Long> stageMillis, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("packages.enrichment.stage").tag("stage", stage).register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            stageMillis.put(stage, elapsed / 1_000_000);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> dataList(ResponseEntity<Map<String, Object>> response) {
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return List.of();
+        }
+        Object data = response.getBody().get("data");
+        return data instanceof List<?> list ? (List<Map<String, Object>>) list : List.of();
+    }
+
+    private static Long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+}
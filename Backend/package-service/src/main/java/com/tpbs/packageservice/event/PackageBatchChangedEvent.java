@@ -0,0 +1,11 @@
+package com.tpbs.packageservice.event;
+
+import java.util.List;
+
+/**
+ * Many package changes committed together (bulk import, bulk price updates).
+ * Listeners apply the whole batch under one lock / one copy instead of paying the
+ * per-event cost once per row.
+ */
+public record PackageBatchChangedEvent(List<PackageChangedEvent> changes) {
+}
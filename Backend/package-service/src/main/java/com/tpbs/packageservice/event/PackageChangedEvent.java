@@ -0,0 +1,15 @@
+package com.tpbs.packageservice.event;
+
+import com.tpbs.packageservice.dto.TravelPackageDto;
+
+/**
+ * Published by the package service for every create, update and delete. Listeners
+ * use {@code @TransactionalEventListener} so they only see committed state.
+ * {@code travelPackage} is null when the package was deleted.
+ */
+public record PackageChangedEvent(Long packageId, TravelPackageDto travelPackage) {
+
+    public boolean isDeleted() {
+        return travelPackage == null;
+    }
+}
@@ -2,8 +2,12 @@ package com.tpbs.packageservice.mapper;
 
 import com.tpbs.packageservice.dto.TravelPackageDto;
 import com.tpbs.packageservice.model.TravelPackage;
+import com.tpbs.packageservice.util.DurationUtil;
+import com.tpbs.packageservice.util.ServiceListUtil;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 @Component
 public class TravelPackageMapper {
 
@@ -35,7 +39,9 @@ public class TravelPackageMapper {
                 dto.getPrice(),
                 dto.getIncludedServices(),
                 dto.getAgentId(),
-                dto.getImage()
+                dto.getImage(),
+                DurationUtil.parseDays(dto.getDuration()),
+                ServiceListUtil.keys(dto.getIncludedServices())
         );
     }
 
@@ -50,5 +56,10 @@ public class TravelPackageMapper {
         entity.setIncludedServices(dto.getIncludedServices());
         entity.setAgentId(dto.getAgentId());
         entity.setImage(dto.getImage());
+        entity.setDurationDays(DurationUtil.parseDays(dto.getDuration()));
+        // Edit the managed collection in place so only changed join rows are written
+        Set<String> services = ServiceListUtil.keys(dto.getIncludedServices());
+        entity.getServices().retainAll(services);
+        entity.getServices().addAll(services);
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.tpbs.packageservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Share of a departure's capacity that is sold (0..1), as last reported for a package
+ * and departure date. Input to OCCUPANCY pricing rules.
+ */
+@Entity
+@Table(name = "package_occupancy")
+@IdClass(PackageOccupancy.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageOccupancy {
+    
+    @Id
+    private Long packageId;
+    
+    @Id
+    private LocalDate departureDate;
+    
+    @Column(nullable = false, precision = 5, scale = 4)
+    private BigDecimal occupancy;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long packageId;
+        private LocalDate departureDate;
+    }
+}
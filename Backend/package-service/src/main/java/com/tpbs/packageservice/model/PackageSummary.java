@@ -0,0 +1,41 @@
+package com.tpbs.packageservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Review and booking totals of a package, copied from review-service and
+ * booking-service when they report a change. Derived data: either service can
+ * resend its totals at any time and the latest report wins.
+ */
+@Entity
+@Table(name = "package_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageSummary {
+    
+    @Id
+    private Long packageId;
+    
+    // Null until the package has a review
+    @Column(precision = 3, scale = 2)
+    private BigDecimal averageRating;
+    
+    @Column(nullable = false)
+    private long reviewCount;
+    
+    @Column(nullable = false)
+    private long bookingCount;
+    
+    @Column(nullable = false)
+    private long confirmedCount;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
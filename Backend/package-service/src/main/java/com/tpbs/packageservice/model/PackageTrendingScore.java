@@ -0,0 +1,29 @@
+package com.tpbs.packageservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Periodic checkpoint of a package's time-decayed trending score, so the trending
+ * rail survives restarts. Written by PackageTrendingTracker, never on the read path.
+ */
+@Entity
+@Table(name = "package_trending_scores")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageTrendingScore {
+    
+    @Id
+    private Long packageId;
+    
+    @Column(nullable = false)
+    private double score;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,46 @@
+package com.tpbs.packageservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "pricing_rules", indexes = {
+        @Index(name = "idx_pricing_rules_package_id", columnList = "package_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingRule {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long ruleId;
+    
+    // Null for a rule that applies to every package
+    @Column(name = "package_id")
+    private Long packageId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PricingRuleType type;
+    
+    // Departure-date window, inclusive; null means open-ended
+    private LocalDate startDate;
+    
+    private LocalDate endDate;
+    
+    @Column(nullable = false, precision = 6, scale = 4)
+    private BigDecimal multiplier;
+    
+    // EARLY_BIRD only
+    private Integer minDaysAhead;
+    
+    // OCCUPANCY only
+    @Column(precision = 5, scale = 4)
+    private BigDecimal minOccupancy;
+}
@@ -0,0 +1,10 @@
+package com.tpbs.packageservice.model;
+
+public enum PricingRuleType {
+    // Multiplier for departures inside the rule's date window
+    SEASONAL,
+    // Discount multiplier when booked at least minDaysAhead days before departure
+    EARLY_BIRD,
+    // Surcharge multiplier once a departure is at least minOccupancy (0..1) full
+    OCCUPANCY
+}
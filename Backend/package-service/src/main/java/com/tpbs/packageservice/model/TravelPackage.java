@@ -3,19 +3,36 @@ package com.tpbs.packageservice.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Entity
-@Table(name = "travel_packages")
+@Table(name = "travel_packages", indexes = {
+        // Keyset pagination sort keys; package_id is the tie-breaker
+        @Index(name = "idx_packages_agent_id", columnList = "agent_id, package_id"),
+        @Index(name = "idx_packages_price_id", columnList = "price, package_id"),
+        @Index(name = "idx_packages_title_id", columnList = "title, package_id"),
+        @Index(name = "idx_packages_duration_days", columnList = "duration_days, package_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class TravelPackage {
     
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    // Pooled table generator: ids are reserved in blocks, so inserts can be JDBC-batched
+    // (IDENTITY forces one round trip per row). See PackageIdGeneratorAligner.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "package_id")
+    @TableGenerator(name = "package_id", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "travel_packages", allocationSize = TravelPackage.ID_ALLOCATION_SIZE)
     private Long packageId;
     
     @Column(nullable = false)
@@ -37,4 +54,20 @@ public class TravelPackage {
     private Long agentId;
     
     private String image;
+    
+    // Structured copies of duration and includedServices for indexed filtering;
+    // TravelPackageMapper keeps them in sync and PackageColumnBackfill fills older rows
+    @Column(name = "duration_days")
+    private Integer durationDays;
+    
+    // Normalized (lower-case) service keys, one row per package and service
+    @ElementCollection
+    @CollectionTable(name = "package_services",
+            joinColumns = @JoinColumn(name = "package_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_package_services", columnNames = {"package_id", "service"}),
+            indexes = @Index(name = "idx_package_services_service", columnList = "service, package_id"))
+    @Column(name = "service", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<String> services = new LinkedHashSet<>();
 } 
\ No newline at end of file
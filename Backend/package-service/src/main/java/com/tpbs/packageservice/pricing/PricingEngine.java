@@ -0,0 +1,292 @@
+package com.tpbs.packageservice.pricing;
+
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.event.PackageBatchChangedEvent;
+import com.tpbs.packageservice.event.PackageChangedEvent;
+import com.tpbs.packageservice.model.PackageOccupancy;
+import com.tpbs.packageservice.model.PricingRule;
+import com.tpbs.packageservice.model.PricingRuleType;
+import com.tpbs.packageservice.repository.PackageOccupancyRepository;
+import com.tpbs.packageservice.repository.PricingRuleRepository;
+import com.tpbs.packageservice.repository.TravelPackageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles pricing rules into one price table per package: a {@code long[]} of prices in
+ * cents for every departure date from today to {@code packages.pricing.horizon-days}
+ * ahead, with seasonal, early-bird and occupancy multipliers already applied. A quote
+ * is an array slice, so it costs microseconds and never touches the database.
+ *
+ * Tables are rebuilt only where something changed: one package when its price, its
+ * own rules or its occupancy change (a single date for occupancy), every package when
+ * a global rule changes or the date rolls over (early-bird discounts depend on how many
+ * days ahead a departure is). Writers are serialized; readers see immutable tables.
+ */
+@Slf4j
+@Component
+public class PricingEngine {
+
+    private static final long ROLLOVER_CHECK_MINUTES = 10;
+
+    /** Prices in cents for consecutive departure dates starting at {@code startEpochDay}. */
+    public record PriceTable(long startEpochDay, long baseCents, long[] cents) {
+
+        public LocalDate startDate() {
+            return LocalDate.ofEpochDay(startEpochDay);
+        }
+
+        public LocalDate endDate() {
+            return LocalDate.ofEpochDay(startEpochDay + cents.length - 1);
+        }
+    }
+
+    /** Rule with dates as epoch days and multipliers as doubles, ready for table compilation. */
+    private record CompiledRule(PricingRuleType type, long fromDay, long toDay, double multiplier,
+                                int minDaysAhead, double minOccupancy) {
+
+        static CompiledRule of(PricingRule rule) {
+            return new CompiledRule(rule.getType(),
+                    rule.getStartDate() != null ? rule.getStartDate().toEpochDay() : Long.MIN_VALUE,
+                    rule.getEndDate() != null ? rule.getEndDate().toEpochDay() : Long.MAX_VALUE,
+                    rule.getMultiplier().doubleValue(),
+                    rule.getMinDaysAhead() != null ? rule.getMinDaysAhead() : 0,
+                    rule.getMinOccupancy() != null ? rule.getMinOccupancy().doubleValue() : 0);
+        }
+
+        boolean covers(long day) {
+            return day >= fromDay && day <= toDay;
+        }
+    }
+
+    private final TravelPackageRepository packageRepository;
+    private final PricingRuleRepository ruleRepository;
+    private final PackageOccupancyRepository occupancyRepository;
+    private final int horizonDays;
+
+    private final Map<Long, PriceTable> tables = new ConcurrentHashMap<>();
+    // Writer state, guarded by `this`
+    private final Map<Long, Long> baseCents = new HashMap<>();
+    private final Map<Long, List<CompiledRule>> packageRules = new HashMap<>();
+    private List<CompiledRule> globalRules = List.of();
+    private final Map<Long, Map<Long, Double>> occupancy = new HashMap<>();
+    private long today;
+
+    private final ScheduledExecutorService rollover = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "package-pricing-rollover");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PricingEngine(TravelPackageRepository packageRepository,
+                         PricingRuleRepository ruleRepository,
+                         PackageOccupancyRepository occupancyRepository,
+                         @Value("${packages.pricing.horizon-days:365}") int horizonDays) {
+        this.packageRepository = packageRepository;
+        this.ruleRepository = ruleRepository;
+        this.occupancyRepository = occupancyRepository;
+        this.horizonDays = horizonDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        long start = System.nanoTime();
+        today = LocalDate.now().toEpochDay();
+        baseCents.clear();
+        packageRepository.findAll().forEach(p -> baseCents.put(p.getPackageId(), toCents(p.getPrice())));
+        packageRules.clear();
+        List<CompiledRule> global = new ArrayList<>();
+        for (PricingRule rule : ruleRepository.findAll()) {
+            if (rule.getPackageId() == null) {
+                global.add(CompiledRule.of(rule));
+            } else {
+                packageRules.computeIfAbsent(rule.getPackageId(), id -> new ArrayList<>()).add(CompiledRule.of(rule));
+            }
+        }
+        globalRules = List.copyOf(global);
+        occupancy.clear();
+        for (PackageOccupancy row : occupancyRepository.findByDepartureDateGreaterThanEqual(LocalDate.ofEpochDay(today))) {
+            occupancy.computeIfAbsent(row.getPackageId(), id -> new HashMap<>())
+                    .put(row.getDepartureDate().toEpochDay(), row.getOccupancy().doubleValue());
+        }
+        compileAll();
+        log.info("Compiled price tables for {} packages x {} days in {} ms",
+                tables.size(), horizonDays, (System.nanoTime() - start) / 1_000_000);
+        if (!rollover.isShutdown()) {
+            rollover.scheduleWithFixedDelay(this::rollOverIfNeeded, ROLLOVER_CHECK_MINUTES, ROLLOVER_CHECK_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rollover.shutdownNow();
+    }
+
+    // Number of departure days each table covers
+    public int horizonDays() {
+        return horizonDays;
+    }
+
+    public Optional<PriceTable> table(Long packageId) {
+        return Optional.ofNullable(tables.get(packageId));
+    }
+
+    /** Reloads one package's rules, or every rule when {@code packageId} is null (global rule changed). */
+    public synchronized void rulesChanged(Long packageId) {
+        if (packageId == null) {
+            globalRules = ruleRepository.findByPackageIdIsNull().stream().map(CompiledRule::of).toList();
+            compileAll();
+            return;
+        }
+        List<CompiledRule> rules = ruleRepository.findByPackageId(packageId).stream().map(CompiledRule::of).toList();
+        if (rules.isEmpty()) {
+            packageRules.remove(packageId);
+        } else {
+            packageRules.put(packageId, rules);
+        }
+        compile(packageId);
+    }
+
+    /** Records a departure's occupancy and reprices just that date. */
+    public synchronized void occupancyChanged(Long packageId, LocalDate departureDate, double share) {
+        long day = departureDate.toEpochDay();
+        occupancy.computeIfAbsent(packageId, id -> new HashMap<>()).put(day, share);
+        PriceTable table = tables.get(packageId);
+        if (table == null || day < table.startEpochDay() || day > table.endDate().toEpochDay()) {
+            return;
+        }
+        long[] cents = table.cents().clone();
+        int index = (int) (day - table.startEpochDay());
+        cents[index] = price(table.baseCents(), day, day - today, rulesFor(packageId), occupancy.get(packageId));
+        tables.put(packageId, new PriceTable(table.startEpochDay(), table.baseCents(), cents));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPackageChanged(PackageChangedEvent event) {
+        apply(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPackagesChanged(PackageBatchChangedEvent batch) {
+        apply(batch.changes());
+    }
+
+    private synchronized void apply(List<PackageChangedEvent> changes) {
+        for (PackageChangedEvent change : changes) {
+            Long id = change.packageId();
+            if (change.isDeleted()) {
+                baseCents.remove(id);
+                packageRules.remove(id);
+                occupancy.remove(id);
+                tables.remove(id);
+                continue;
+            }
+            TravelPackageDto travelPackage = change.travelPackage();
+            long cents = toCents(travelPackage.getPrice());
+            Long previous = baseCents.put(id, cents);
+            if (previous == null || previous != cents || !tables.containsKey(id)) {
+                compile(id);
+            }
+        }
+    }
+
+    private synchronized void rollOverIfNeeded() {
+        long now = LocalDate.now().toEpochDay();
+        if (now != today) {
+            today = now;
+            occupancy.values().forEach(days -> days.keySet().removeIf(day -> day < now));
+            compileAll();
+            log.info("Price tables rolled over to {}", LocalDate.ofEpochDay(now));
+        }
+    }
+
+    private void compileAll() {
+        tables.keySet().retainAll(baseCents.keySet());
+        baseCents.keySet().forEach(this::compile);
+    }
+
+    private void compile(Long packageId) {
+        Long base = baseCents.get(packageId);
+        if (base == null) {
+            return;
+        }
+        List<CompiledRule> rules = rulesFor(packageId);
+        Map<Long, Double> packageOccupancy = occupancy.get(packageId);
+        long[] cents = new long[horizonDays];
+        for (int i = 0; i < horizonDays; i++) {
+            cents[i] = price(base, today + i, i, rules, packageOccupancy);
+        }
+        tables.put(packageId, new PriceTable(today, base, cents));
+    }
+
+    private List<CompiledRule> rulesFor(Long packageId) {
+        List<CompiledRule> own = packageRules.get(packageId);
+        if (own == null) {
+            return globalRules;
+        }
+        List<CompiledRule> rules = new ArrayList<>(globalRules);
+        rules.addAll(own);
+        return rules;
+    }
+
+    // Seasonal multipliers stack; the best early-bird discount and the highest occupancy surcharge apply
+    private static long price(long base, long day, long daysAhead, List<CompiledRule> rules, Map<Long, Double> occupancy) {
+        double seasonal = 1;
+        double earlyBird = 1;
+        double surcharge = 1;
+        double sold = occupancy != null ? occupancy.getOrDefault(day, 0.0) : 0;
+        for (CompiledRule rule : rules) {
+            if (!rule.covers(day)) {
+                continue;
+            }
+            switch (rule.type()) {
+                case SEASONAL -> seasonal *= rule.multiplier();
+                case EARLY_BIRD -> {
+                    if (daysAhead >= rule.minDaysAhead()) {
+                        earlyBird = Math.min(earlyBird, rule.multiplier());
+                    }
+                }
+                case OCCUPANCY -> {
+                    if (sold >= rule.minOccupancy()) {
+                        surcharge = Math.max(surcharge, rule.multiplier());
+                    }
+                }
+            }
+        }
+        return Math.round(base * seasonal * earlyBird * surcharge);
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price == null ? 0 : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /** Prices for departures {@code from..to} (inclusive), copied out of the table. */
+    public static long[] slice(PriceTable table, LocalDate from, LocalDate to) {
+        int start = (int) (from.toEpochDay() - table.startEpochDay());
+        int end = (int) (to.toEpochDay() - table.startEpochDay());
+        return Arrays.copyOfRange(table.cents(), start, end + 1);
+    }
+}
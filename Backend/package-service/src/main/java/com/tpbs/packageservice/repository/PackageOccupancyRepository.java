@@ -0,0 +1,14 @@
+package com.tpbs.packageservice.repository;
+
+import com.tpbs.packageservice.model.PackageOccupancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PackageOccupancyRepository extends JpaRepository<PackageOccupancy, PackageOccupancy.Key> {
+    
+    List<PackageOccupancy> findByDepartureDateGreaterThanEqual(LocalDate from);
+}
@@ -0,0 +1,9 @@
+package com.tpbs.packageservice.repository;
+
+import com.tpbs.packageservice.model.PackageSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PackageSummaryRepository extends JpaRepository<PackageSummary, Long> {
+}
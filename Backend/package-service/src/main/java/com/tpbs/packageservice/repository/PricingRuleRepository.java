@@ -0,0 +1,15 @@
+package com.tpbs.packageservice.repository;
+
+import com.tpbs.packageservice.model.PricingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PricingRuleRepository extends JpaRepository<PricingRule, Long> {
+    
+    List<PricingRule> findByPackageId(Long packageId);
+    
+    List<PricingRule> findByPackageIdIsNull();
+}
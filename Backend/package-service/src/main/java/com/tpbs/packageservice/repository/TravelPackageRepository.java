@@ -1,11 +1,14 @@
 package com.tpbs.packageservice.repository;
 
 import com.tpbs.packageservice.model.TravelPackage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,4 +20,55 @@ public interface TravelPackageRepository extends JpaRepository<TravelPackage, Lo
            "LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<TravelPackage> searchPackages(@Param("keyword") String keyword);
-} 
\ No newline at end of file
+    
+    // Keyset pages: rows strictly after (key, packageId), optionally scoped to one agent
+    @Query("SELECT p FROM TravelPackage p WHERE (:agentId IS NULL OR p.agentId = :agentId) " +
+           "AND p.packageId > :afterId ORDER BY p.packageId")
+    List<TravelPackage> findPageById(@Param("agentId") Long agentId,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
+    
+    @Query("SELECT p FROM TravelPackage p WHERE (:agentId IS NULL OR p.agentId = :agentId) " +
+           "AND (p.price > :afterPrice OR (p.price = :afterPrice AND p.packageId > :afterId)) " +
+           "ORDER BY p.price, p.packageId")
+    List<TravelPackage> findPageByPrice(@Param("agentId") Long agentId,
+                                        @Param("afterPrice") BigDecimal afterPrice,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+    
+    @Query("SELECT p FROM TravelPackage p WHERE (:agentId IS NULL OR p.agentId = :agentId) " +
+           "AND (p.title > :afterTitle OR (p.title = :afterTitle AND p.packageId > :afterId)) " +
+           "ORDER BY p.title, p.packageId")
+    List<TravelPackage> findPageByTitle(@Param("agentId") Long agentId,
+                                        @Param("afterTitle") String afterTitle,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+    
+    // Range scan on idx_packages_duration_days
+    List<TravelPackage> findByDurationDaysBetween(Integer minDays, Integer maxDays);
+    
+    // Membership lookup on idx_package_services_service; services are normalized keys.
+    // required = 1 matches any of them, required = services.size() matches all of them
+    @Query("SELECT p.packageId FROM TravelPackage p JOIN p.services s WHERE s IN :services " +
+           "GROUP BY p.packageId HAVING COUNT(s) >= :required")
+    List<Long> findIdsWithServices(@Param("services") Collection<String> services,
+                                   @Param("required") long required);
+    
+    // Keyset chunks of ids for bulk updates; null criteria are ignored
+    @Query("SELECT p.packageId FROM TravelPackage p WHERE (:agentId IS NULL OR p.agentId = :agentId) " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+           "AND p.packageId > :afterId ORDER BY p.packageId")
+    List<Long> findIdsForUpdate(@Param("agentId") Long agentId,
+                                @Param("minPrice") BigDecimal minPrice,
+                                @Param("maxPrice") BigDecimal maxPrice,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+    
+    @Query("SELECT p.packageId FROM TravelPackage p WHERE p.packageId IN :ids " +
+           "AND (:agentId IS NULL OR p.agentId = :agentId) " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) AND (:maxPrice IS NULL OR p.price <= :maxPrice)")
+    List<Long> findIdsForUpdateIn(@Param("ids") Collection<Long> ids,
+                                  @Param("agentId") Long agentId,
+                                  @Param("minPrice") BigDecimal minPrice,
+                                  @Param("maxPrice") BigDecimal maxPrice);
+}
@@ -0,0 +1,294 @@
+package com.tpbs.packageservice.search;
+
+import com.tpbs.packageservice.dto.FacetQueryResultDto;
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.event.PackageBatchChangedEvent;
+import com.tpbs.packageservice.event.PackageChangedEvent;
+import com.tpbs.packageservice.mapper.TravelPackageMapper;
+import com.tpbs.packageservice.repository.TravelPackageRepository;
+import com.tpbs.packageservice.util.DurationUtil;
+import com.tpbs.packageservice.util.ServiceListUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmap indexes (one RoaringBitmap per facet value, keyed by package id)
+ * for price band, trip length and included services, plus a sorted price index for
+ * arbitrary price ranges. Filters are bitmap intersections and facet counts are
+ * AND-cardinalities, so neither touches SQL.
+ */
+@Slf4j
+@Component
+public class PackageFacetIndex {
+
+    public static final String PRICE_BAND = "priceBand";
+    public static final String DURATION = "durationDays";
+    public static final String SERVICE = "services";
+
+    private final TravelPackageRepository packageRepository;
+    private final TravelPackageMapper packageMapper;
+    private final BigDecimal[] priceBandBounds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, TravelPackageDto> packages = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final TreeMap<BigDecimal, RoaringBitmap> byPrice = new TreeMap<>();
+    private final Map<String, RoaringBitmap> byPriceBand = new LinkedHashMap<>();
+    private final TreeMap<Integer, RoaringBitmap> byDuration = new TreeMap<>();
+    private final Map<String, RoaringBitmap> byService = new TreeMap<>();
+    // Display label for each normalized service key, e.g. "breakfast" -> "Breakfast"
+    private final Map<String, String> serviceLabels = new HashMap<>();
+    // Changes committed while the startup load was running; replayed once it finishes
+    private final List<PackageChangedEvent> pending = new ArrayList<>();
+    private volatile boolean ready;
+
+    public PackageFacetIndex(TravelPackageRepository packageRepository,
+                             TravelPackageMapper packageMapper,
+                             @Value("${packages.facets.price-bands:1000,1500,2000,3000}") List<BigDecimal> priceBands) {
+        this.packageRepository = packageRepository;
+        this.packageMapper = packageMapper;
+        this.priceBandBounds = priceBands.stream().sorted().toArray(BigDecimal[]::new);
+        for (int i = 0; i <= priceBandBounds.length; i++) {
+            byPriceBand.put(bandLabel(i), new RoaringBitmap());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        List<TravelPackageDto> catalog = packageRepository.findAll().stream().map(packageMapper::toDto).toList();
+        lock.writeLock().lock();
+        try {
+            catalog.forEach(this::add);
+            pending.forEach(this::apply);
+            pending.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Package facet index built for {} packages ({} services, {} durations)",
+                catalog.size(), byService.size(), byDuration.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether a price falls in any of the given band labels; lets callers that filter
+     * outside the index (e.g. the database fallback) honour the same bands.
+     */
+    public boolean inPriceBands(BigDecimal price, List<String> bands) {
+        return price != null && bands.contains(bandLabel(band(price)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPackageChanged(PackageChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                pending.add(event);
+                return;
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPackagesChanged(PackageBatchChangedEvent batch) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                pending.addAll(batch.changes());
+                return;
+            }
+            batch.changes().forEach(this::apply);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(PackageChangedEvent event) {
+        remove(Math.toIntExact(event.packageId()));
+        if (!event.isDeleted()) {
+            add(event.travelPackage());
+        }
+    }
+
+    /**
+     * @param services     included services to filter by (matched case-insensitively)
+     * @param matchAllServices true to require every service, false to require any
+     */
+    public FacetQueryResultDto query(BigDecimal minPrice, BigDecimal maxPrice, List<String> priceBands,
+                                     Integer minDays, Integer maxDays, List<String> services,
+                                     boolean matchAllServices, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = all.clone();
+            if (minPrice != null || maxPrice != null) {
+                result.and(priceRange(minPrice, maxPrice));
+            }
+            if (priceBands != null && !priceBands.isEmpty()) {
+                result.and(union(priceBands.stream().map(byPriceBand::get).toList()));
+            }
+            if (minDays != null || maxDays != null) {
+                int from = minDays != null ? minDays : Integer.MIN_VALUE;
+                int to = maxDays != null ? maxDays : Integer.MAX_VALUE;
+                result.and(union(new ArrayList<>(byDuration.subMap(from, true, to, true).values())));
+            }
+            if (services != null && !services.isEmpty()) {
+                List<RoaringBitmap> serviceBitmaps = services.stream()
+                        .map(s -> byService.get(ServiceListUtil.key(s)))
+                        .toList();
+                if (matchAllServices) {
+                    for (RoaringBitmap bitmap : serviceBitmaps) {
+                        result.and(bitmap != null ? bitmap : new RoaringBitmap());
+                    }
+                } else {
+                    result.and(union(serviceBitmaps));
+                }
+            }
+
+            List<TravelPackageDto> matches = new ArrayList<>(result.getCardinality());
+            result.forEach((int id) -> matches.add(packages.get(id)));
+            matches.sort(Comparator.comparing(TravelPackageDto::getPrice).thenComparing(TravelPackageDto::getPackageId));
+
+            return new FacetQueryResultDto(
+                    matches.subList(0, Math.min(limit, matches.size())),
+                    result.getLongCardinality(),
+                    facetCounts(result));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Map<String, Long>> facetCounts(RoaringBitmap result) {
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        Map<String, Long> bands = new LinkedHashMap<>();
+        byPriceBand.forEach((label, bitmap) -> bands.put(label, (long) RoaringBitmap.andCardinality(result, bitmap)));
+        facets.put(PRICE_BAND, bands);
+
+        Map<String, Long> durations = new LinkedHashMap<>();
+        byDuration.forEach((days, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(result, bitmap);
+            if (count > 0) {
+                durations.put(String.valueOf(days), count);
+            }
+        });
+        facets.put(DURATION, durations);
+
+        Map<String, Long> serviceCounts = new LinkedHashMap<>();
+        byService.forEach((key, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(result, bitmap);
+            if (count > 0) {
+                serviceCounts.put(serviceLabels.get(key), count);
+            }
+        });
+        facets.put(SERVICE, serviceCounts);
+        return facets;
+    }
+
+    private RoaringBitmap priceRange(BigDecimal min, BigDecimal max) {
+        Map<BigDecimal, RoaringBitmap> range;
+        if (min != null && max != null) {
+            range = byPrice.subMap(min, true, max, true);
+        } else if (min != null) {
+            range = byPrice.tailMap(min, true);
+        } else {
+            range = byPrice.headMap(max, true);
+        }
+        return union(new ArrayList<>(range.values()));
+    }
+
+    private static RoaringBitmap union(List<RoaringBitmap> bitmaps) {
+        List<RoaringBitmap> present = bitmaps.stream().filter(b -> b != null).toList();
+        return present.isEmpty() ? new RoaringBitmap() : FastAggregation.or(present.iterator());
+    }
+
+    private void add(TravelPackageDto travelPackage) {
+        int id = Math.toIntExact(travelPackage.getPackageId());
+        packages.put(id, travelPackage);
+        all.add(id);
+        if (travelPackage.getPrice() != null) {
+            byPrice.computeIfAbsent(travelPackage.getPrice().stripTrailingZeros(), p -> new RoaringBitmap()).add(id);
+            byPriceBand.get(bandLabel(band(travelPackage.getPrice()))).add(id);
+        }
+        Integer days = DurationUtil.parseDays(travelPackage.getDuration());
+        if (days != null) {
+            byDuration.computeIfAbsent(days, d -> new RoaringBitmap()).add(id);
+        }
+        for (String service : ServiceListUtil.parse(travelPackage.getIncludedServices())) {
+            String key = ServiceListUtil.key(service);
+            serviceLabels.putIfAbsent(key, service);
+            byService.computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    private void remove(int id) {
+        TravelPackageDto existing = packages.remove(id);
+        if (existing == null) {
+            return;
+        }
+        all.remove(id);
+        if (existing.getPrice() != null) {
+            removeFrom(byPrice, existing.getPrice().stripTrailingZeros(), id);
+            byPriceBand.get(bandLabel(band(existing.getPrice()))).remove(id);
+        }
+        Integer days = DurationUtil.parseDays(existing.getDuration());
+        if (days != null) {
+            removeFrom(byDuration, days, id);
+        }
+        for (String service : ServiceListUtil.parse(existing.getIncludedServices())) {
+            String key = ServiceListUtil.key(service);
+            removeFrom(byService, key, id);
+            if (!byService.containsKey(key)) {
+                serviceLabels.remove(key);
+            }
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> index, K key, int id) {
+        RoaringBitmap bitmap = index.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private int band(BigDecimal price) {
+        int band = 0;
+        while (band < priceBandBounds.length && price.compareTo(priceBandBounds[band]) >= 0) {
+            band++;
+        }
+        return band;
+    }
+
+    private String bandLabel(int band) {
+        if (band == 0) {
+            return "0-" + priceBandBounds[0].toPlainString();
+        }
+        if (band == priceBandBounds.length) {
+            return priceBandBounds[band - 1].toPlainString() + "+";
+        }
+        return priceBandBounds[band - 1].toPlainString() + "-" + priceBandBounds[band].toPlainString();
+    }
+}
@@ -0,0 +1,122 @@
+package com.tpbs.packageservice.search;
+
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * LRU cache of search results in front of PackageSearchIndex, keyed by the normalized
+ * query (lower-cased, whitespace collapsed) and the index version. Any committed
+ * package write bumps the version, which empties the cache on its next use, so
+ * entries never outlive the data they were computed from. Queries with no results
+ * are kept in a separate, larger LRU so a burst of typos cannot evict popular queries.
+ */
+@Component
+public class PackageSearchCache {
+
+    private final PackageSearchIndex searchIndex;
+    private final Map<String, List<TravelPackageDto>> results;
+    private final Map<String, Boolean> empty;
+    private long cachedVersion = -1;
+
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+
+    public PackageSearchCache(PackageSearchIndex searchIndex,
+                              MeterRegistry meterRegistry,
+                              @Value("${packages.search.cache.max-entries:500}") int maxEntries,
+                              @Value("${packages.search.cache.max-empty-entries:1000}") int maxEmptyEntries) {
+        this.searchIndex = searchIndex;
+        this.results = lru(maxEntries);
+        this.empty = lru(maxEmptyEntries);
+        this.hits = counter(meterRegistry, "hit");
+        this.negativeHits = counter(meterRegistry, "negative_hit");
+        this.misses = counter(meterRegistry, "miss");
+        Gauge.builder("packages.search.cache.hit.ratio", this, PackageSearchCache::hitRatio)
+                .description("Share of package searches answered from the cache")
+                .register(meterRegistry);
+        Gauge.builder("packages.search.cache.size", this, PackageSearchCache::size)
+                .description("Cached package search queries, including empty results")
+                .register(meterRegistry);
+    }
+
+    /** Same results as {@link PackageSearchIndex#search}, answered from the cache when possible. */
+    public List<TravelPackageDto> search(String query) {
+        String key = normalize(query);
+        long version = searchIndex.version();
+        synchronized (this) {
+            invalidateIfStale(version);
+            List<TravelPackageDto> cached = results.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            if (empty.get(key) != null) {
+                negativeHits.increment();
+                return List.of();
+            }
+        }
+        misses.increment();
+        List<TravelPackageDto> found = List.copyOf(searchIndex.search(key));
+        synchronized (this) {
+            // Only cache if no write landed while searching
+            if (searchIndex.version() == version) {
+                invalidateIfStale(version);
+                if (found.isEmpty()) {
+                    empty.put(key, Boolean.TRUE);
+                } else {
+                    results.put(key, found);
+                }
+            }
+        }
+        return found;
+    }
+
+    private void invalidateIfStale(long version) {
+        if (version != cachedVersion) {
+            results.clear();
+            empty.clear();
+            cachedVersion = version;
+        }
+    }
+
+    private double hitRatio() {
+        double hit = hits.count() + negativeHits.count();
+        double total = hit + misses.count();
+        return total == 0 ? 0 : hit / total;
+    }
+
+    private synchronized int size() {
+        return results.size() + empty.size();
+    }
+
+    static String normalize(String query) {
+        return query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("packages.search.cache.requests")
+                .description("Package searches by cache outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Access-ordered LinkedHashMap that drops the least recently used entry past maxEntries
+    private static <V> Map<String, V> lru(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+}
@@ -0,0 +1,272 @@
+package com.tpbs.packageservice.search;
+
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.event.PackageBatchChangedEvent;
+import com.tpbs.packageservice.event.PackageChangedEvent;
+import com.tpbs.packageservice.mapper.TravelPackageMapper;
+import com.tpbs.packageservice.repository.TravelPackageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tokenized, stemmed inverted index over package title, description and included
+ * services, ranked with BM25. Built from MySQL once at startup and then maintained
+ * incrementally from committed package changes, so searches never hit the database.
+ *
+ * Query syntax: whitespace-separated terms are ANDed; "OR" (or "|") separates
+ * alternative clauses. The last term also matches as a prefix to support typing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PackageSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SERVICES_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final TravelPackageRepository packageRepository;
+    private final TravelPackageMapper packageMapper;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // Unstemmed indexed words -> number of documents containing them. Sorted so the
+    // trailing query term can be expanded as a prefix: a partly typed word ("citie")
+    // is compared with the words as written, then scored through their stems ("city")
+    private final TreeMap<String, Integer> surfaceWords = new TreeMap<>();
+    private long totalLength;
+    // Changes committed while the startup load was running; replayed once it finishes
+    private final List<PackageChangedEvent> pending = new ArrayList<>();
+    private volatile boolean ready;
+    // Bumped under the write lock on every build and applied change; keys PackageSearchCache
+    private volatile long version;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        List<TravelPackageDto> packages = packageRepository.findAll().stream()
+                .map(packageMapper::toDto)
+                .toList();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            surfaceWords.clear();
+            totalLength = 0;
+            packages.forEach(this::add);
+            pending.forEach(this::apply);
+            pending.clear();
+            version++;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Package search index built with {} packages and {} terms in {} ms",
+                packages.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPackageChanged(PackageChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                pending.add(event);
+                return;
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPackagesChanged(PackageBatchChangedEvent batch) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                pending.addAll(batch.changes());
+                return;
+            }
+            batch.changes().forEach(this::apply);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(PackageChangedEvent event) {
+        remove(event.packageId());
+        if (!event.isDeleted()) {
+            add(event.travelPackage());
+        }
+        version++;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<TravelPackageDto> search(String query) {
+        List<List<String>> clauses = parse(query);
+        if (clauses.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            for (int i = 0; i < clauses.size(); i++) {
+                boolean lastClause = i == clauses.size() - 1;
+                scoreClause(clauses.get(i), lastClause, scores);
+            }
+            List<TravelPackageDto> results = new ArrayList<>(scores.size());
+            scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> results.add(documents.get(entry.getKey()).travelPackage()));
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ANDs the clause's terms and merges matching documents into scores (best clause wins)
+    private void scoreClause(List<String> words, boolean prefixLast, Map<Long, Double> scores) {
+        Map<Long, Double> clauseScores = null;
+        for (int i = 0; i < words.size(); i++) {
+            boolean prefix = prefixLast && i == words.size() - 1;
+            Map<Long, Double> termScores = scoreTerm(words.get(i), prefix);
+            if (clauseScores == null) {
+                clauseScores = termScores;
+            } else {
+                clauseScores.keySet().retainAll(termScores.keySet());
+                clauseScores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (clauseScores.isEmpty()) {
+                return;
+            }
+        }
+        if (clauseScores != null) {
+            clauseScores.forEach((id, score) -> scores.merge(id, score, Math::max));
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String word, boolean prefix) {
+        Set<String> terms = new HashSet<>();
+        terms.add(TextAnalyzer.stem(word));
+        if (prefix) {
+            for (String surface : surfaceWords.subMap(word, true, word + Character.MAX_VALUE, false).keySet()) {
+                terms.add(TextAnalyzer.stem(surface));
+            }
+        }
+        double avgLength = documents.isEmpty() ? 1.0 : (double) totalLength / documents.size();
+        Map<Long, Double> termScores = new HashMap<>();
+        for (String term : terms) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (documents.size() - docs.size() + 0.5) / (docs.size() + 0.5));
+            docs.forEach((id, tf) -> {
+                double norm = K1 * (1 - B + B * documents.get(id).length() / avgLength);
+                termScores.merge(id, idf * tf * (K1 + 1) / (tf + norm), Math::max);
+            });
+        }
+        return termScores;
+    }
+
+    private List<List<String>> parse(String query) {
+        List<List<String>> clauses = new ArrayList<>();
+        if (query == null) {
+            return clauses;
+        }
+        for (String clause : query.split("\\s+(?i:or)\\s+|\\|")) {
+            List<String> words = new ArrayList<>();
+            for (String word : TextAnalyzer.words(clause)) {
+                // Also drops "and" between terms
+                if (!TextAnalyzer.STOP_WORDS.contains(word)) {
+                    words.add(word);
+                }
+            }
+            if (!words.isEmpty()) {
+                clauses.add(words);
+            }
+        }
+        return clauses;
+    }
+
+    private void add(TravelPackageDto travelPackage) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        countTerms(travelPackage.getTitle(), TITLE_WEIGHT, frequencies);
+        countTerms(travelPackage.getIncludedServices(), SERVICES_WEIGHT, frequencies);
+        countTerms(travelPackage.getDescription(), DESCRIPTION_WEIGHT, frequencies);
+
+        Set<String> words = new HashSet<>();
+        collectWords(travelPackage.getTitle(), words);
+        collectWords(travelPackage.getIncludedServices(), words);
+        collectWords(travelPackage.getDescription(), words);
+
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        documents.put(travelPackage.getPackageId(), new Document(travelPackage, frequencies.keySet(), words, length));
+        totalLength += length;
+        frequencies.forEach((term, tf) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(travelPackage.getPackageId(), tf));
+        words.forEach(word -> surfaceWords.merge(word, 1, Integer::sum));
+    }
+
+    private void remove(Long packageId) {
+        Document existing = documents.remove(packageId);
+        if (existing == null) {
+            return;
+        }
+        totalLength -= existing.length();
+        for (String term : existing.terms()) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(packageId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        // Drops words no document contains any more
+        existing.words().forEach(word -> surfaceWords.computeIfPresent(word, (w, count) -> count > 1 ? count - 1 : null));
+    }
+
+    private static void countTerms(String text, int weight, Map<String, Integer> frequencies) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private static void collectWords(String text, Set<String> words) {
+        for (String word : TextAnalyzer.words(text)) {
+            if (!TextAnalyzer.STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+    }
+
+    private record Document(TravelPackageDto travelPackage, Set<String> terms, Set<String> words, int length) {
+    }
+}
@@ -0,0 +1,338 @@
+package com.tpbs.packageservice.search;
+
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.event.PackageBatchChangedEvent;
+import com.tpbs.packageservice.event.PackageChangedEvent;
+import com.tpbs.packageservice.mapper.TravelPackageMapper;
+import com.tpbs.packageservice.repository.TravelPackageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * "Similar packages" from cosine similarity of TF-IDF vectors over title, included
+ * services and description (same analyzer and field weights as PackageSearchIndex).
+ * Every package's top-N neighbours are precomputed, so reads are a map lookup.
+ *
+ * A full build runs at startup on a background thread and fans the neighbour search
+ * out over a ForkJoinPool. After that, committed changes are applied incrementally:
+ * the changed package gets a fresh vector and neighbour list, and only the lists it
+ * enters, moves in or leaves are touched. IDF weights of untouched packages drift as
+ * the catalog changes, so a full rebuild is rerun once enough changes accumulate.
+ */
+@Slf4j
+@Component
+public class PackageSimilarityIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SERVICES_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // Rows per fork/join leaf task
+    private static final int SPLIT_THRESHOLD = 64;
+    // Fraction of the catalog that may change before IDF weights are recomputed
+    private static final double REBUILD_AFTER_CHANGED_FRACTION = 0.1;
+
+    public record Neighbor(long packageId, double similarity) {
+    }
+
+    // Most similar first; package id breaks ties so rankings are stable
+    private static final Comparator<Neighbor> BY_SIMILARITY = Comparator.comparingDouble(Neighbor::similarity).reversed()
+            .thenComparingLong(Neighbor::packageId);
+
+    private final TravelPackageRepository packageRepository;
+    private final TravelPackageMapper packageMapper;
+    private final int neighborCount;
+    private final ForkJoinPool pool;
+
+    // Everything below except `published` is confined to the updater thread
+    // (and read-only by fork/join workers during a build)
+    private final Map<Long, Map<String, Integer>> termFrequencies = new HashMap<>();
+    private final Map<String, Integer> documentFrequencies = new HashMap<>();
+    private final Map<Long, Map<String, Double>> vectors = new HashMap<>();
+    private final Map<String, Map<Long, Double>> postings = new HashMap<>();
+    private final Map<Long, List<Neighbor>> rows = new HashMap<>();
+    private int changesSinceBuild;
+
+    private volatile Map<Long, List<Neighbor>> published = Map.of();
+    private volatile boolean ready;
+
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "package-similarity");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PackageSimilarityIndex(TravelPackageRepository packageRepository,
+                                  TravelPackageMapper packageMapper,
+                                  @Value("${packages.similar.neighbors:10}") int neighborCount,
+                                  @Value("${packages.similar.parallelism:0}") int parallelism) {
+        this.packageRepository = packageRepository;
+        this.packageMapper = packageMapper;
+        this.neighborCount = neighborCount;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        updater.submit(this::safeBuild);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updater.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPackageChanged(PackageChangedEvent event) {
+        updater.submit(() -> safeApply(List.of(event)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPackagesChanged(PackageBatchChangedEvent batch) {
+        updater.submit(() -> safeApply(batch.changes()));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Precomputed neighbours of a package, most similar first. */
+    public List<Neighbor> similar(Long packageId, int limit) {
+        List<Neighbor> neighbors = published.getOrDefault(packageId, List.of());
+        return neighbors.size() <= limit ? neighbors : neighbors.subList(0, limit);
+    }
+
+    private void safeBuild() {
+        try {
+            build();
+        } catch (RuntimeException e) {
+            log.warn("Similar-packages build failed: {}", e.getMessage());
+        }
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        List<TravelPackageDto> packages = packageRepository.findAll().stream().map(packageMapper::toDto).toList();
+        termFrequencies.clear();
+        documentFrequencies.clear();
+        for (TravelPackageDto travelPackage : packages) {
+            addTerms(travelPackage);
+        }
+        vectors.clear();
+        postings.clear();
+        termFrequencies.keySet().forEach(this::addVector);
+
+        Long[] ids = termFrequencies.keySet().toArray(Long[]::new);
+        Map<Long, List<Neighbor>> computed = new ConcurrentHashMap<>(ids.length * 2);
+        pool.invoke(new NeighborTask(ids, 0, ids.length, computed));
+        rows.clear();
+        rows.putAll(computed);
+        changesSinceBuild = 0;
+        publish();
+        ready = true;
+        log.info("Similar-packages index built for {} packages with parallelism {} in {} ms",
+                ids.length, pool.getParallelism(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void safeApply(List<PackageChangedEvent> changes) {
+        try {
+            apply(changes);
+        } catch (RuntimeException e) {
+            log.warn("Similar-packages update failed, rebuilding: {}", e.getMessage());
+            safeBuild();
+        }
+    }
+
+    private void apply(List<PackageChangedEvent> changes) {
+        for (PackageChangedEvent change : changes) {
+            Long id = change.packageId();
+            removePackage(id);
+            if (change.isDeleted()) {
+                rows.remove(id);
+                refreshRowsContaining(id, Map.of());
+            } else {
+                addTerms(change.travelPackage());
+                addVector(id);
+                Map<Long, Double> similarities = similarities(id);
+                rows.put(id, topNeighbors(similarities));
+                refreshRowsContaining(id, similarities);
+                offerToOtherRows(id, similarities);
+            }
+        }
+        changesSinceBuild += changes.size();
+        if (changesSinceBuild > Math.max(1, termFrequencies.size() * REBUILD_AFTER_CHANGED_FRACTION)) {
+            build();
+        } else {
+            publish();
+        }
+    }
+
+    // Rows that list `id`: keep it if it is still at least as similar as before,
+    // otherwise recompute the row since a different package may now belong in it
+    private void refreshRowsContaining(Long id, Map<Long, Double> similarities) {
+        for (Map.Entry<Long, List<Neighbor>> row : rows.entrySet()) {
+            if (row.getKey().equals(id)) {
+                continue;
+            }
+            List<Neighbor> neighbors = row.getValue();
+            for (int i = 0; i < neighbors.size(); i++) {
+                Neighbor neighbor = neighbors.get(i);
+                if (neighbor.packageId() != id) {
+                    continue;
+                }
+                Double similarity = similarities.get(row.getKey());
+                if (similarity != null && similarity >= neighbor.similarity()) {
+                    List<Neighbor> updated = new ArrayList<>(neighbors);
+                    updated.set(i, new Neighbor(id, similarity));
+                    updated.sort(BY_SIMILARITY);
+                    row.setValue(List.copyOf(updated));
+                } else {
+                    row.setValue(topNeighbors(similarities(row.getKey())));
+                }
+                break;
+            }
+        }
+    }
+
+    // Rows that do not list `id` yet but should now
+    private void offerToOtherRows(Long id, Map<Long, Double> similarities) {
+        similarities.forEach((otherId, similarity) -> {
+            List<Neighbor> neighbors = rows.get(otherId);
+            if (neighbors == null || neighbors.stream().anyMatch(n -> n.packageId() == id)) {
+                return;
+            }
+            if (neighbors.size() < neighborCount || similarity > neighbors.get(neighbors.size() - 1).similarity()) {
+                List<Neighbor> updated = new ArrayList<>(neighbors);
+                updated.add(new Neighbor(id, similarity));
+                updated.sort(BY_SIMILARITY);
+                rows.put(otherId, List.copyOf(updated.subList(0, Math.min(neighborCount, updated.size()))));
+            }
+        });
+    }
+
+    private void publish() {
+        published = Map.copyOf(rows);
+    }
+
+    private void addTerms(TravelPackageDto travelPackage) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        countTerms(travelPackage.getTitle(), TITLE_WEIGHT, frequencies);
+        countTerms(travelPackage.getIncludedServices(), SERVICES_WEIGHT, frequencies);
+        countTerms(travelPackage.getDescription(), DESCRIPTION_WEIGHT, frequencies);
+        termFrequencies.put(travelPackage.getPackageId(), frequencies);
+        frequencies.keySet().forEach(term -> documentFrequencies.merge(term, 1, Integer::sum));
+    }
+
+    private void removePackage(Long id) {
+        Map<String, Integer> frequencies = termFrequencies.remove(id);
+        if (frequencies != null) {
+            frequencies.keySet().forEach(term -> documentFrequencies.computeIfPresent(term, (t, df) -> df > 1 ? df - 1 : null));
+        }
+        Map<String, Double> vector = vectors.remove(id);
+        if (vector != null) {
+            for (String term : vector.keySet()) {
+                Map<Long, Double> docs = postings.get(term);
+                if (docs != null) {
+                    docs.remove(id);
+                    if (docs.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    // L2-normalized TF-IDF vector with idf = ln(N / df); terms in every package weigh nothing
+    private void addVector(Long id) {
+        int documents = termFrequencies.size();
+        Map<String, Double> vector = new HashMap<>();
+        double norm = 0;
+        for (Map.Entry<String, Integer> term : termFrequencies.get(id).entrySet()) {
+            double idf = Math.log((double) documents / documentFrequencies.get(term.getKey()));
+            if (idf > 0) {
+                double weight = (1 + Math.log(term.getValue())) * idf;
+                vector.put(term.getKey(), weight);
+                norm += weight * weight;
+            }
+        }
+        double length = Math.sqrt(norm);
+        vector.replaceAll((term, weight) -> weight / length);
+        vectors.put(id, vector);
+        vector.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+    }
+
+    // Cosine similarity to every package sharing a term, via the postings
+    private Map<Long, Double> similarities(Long id) {
+        Map<Long, Double> dots = new HashMap<>();
+        vectors.getOrDefault(id, Map.of()).forEach((term, weight) ->
+                postings.get(term).forEach((otherId, otherWeight) -> {
+                    if (!otherId.equals(id)) {
+                        dots.merge(otherId, weight * otherWeight, Double::sum);
+                    }
+                }));
+        return dots;
+    }
+
+    private List<Neighbor> topNeighbors(Map<Long, Double> similarities) {
+        PriorityQueue<Neighbor> heap = new PriorityQueue<>(neighborCount + 1, BY_SIMILARITY.reversed());
+        similarities.forEach((id, similarity) -> {
+            heap.add(new Neighbor(id, similarity));
+            if (heap.size() > neighborCount) {
+                heap.poll();
+            }
+        });
+        List<Neighbor> neighbors = new ArrayList<>(heap);
+        neighbors.sort(BY_SIMILARITY);
+        return List.copyOf(neighbors);
+    }
+
+    private static void countTerms(String text, int weight, Map<String, Integer> frequencies) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private class NeighborTask extends RecursiveAction {
+
+        private final Long[] ids;
+        private final int from;
+        private final int to;
+        private final Map<Long, List<Neighbor>> result;
+
+        NeighborTask(Long[] ids, int from, int to, Map<Long, List<Neighbor>> result) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    result.put(ids[i], topNeighbors(similarities(ids[i])));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new NeighborTask(ids, from, middle, result), new NeighborTask(ids, middle, to, result));
+        }
+    }
+}
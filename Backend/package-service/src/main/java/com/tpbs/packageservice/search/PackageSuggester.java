@@ -0,0 +1,313 @@
+package com.tpbs.packageservice.search;
+
+import com.tpbs.packageservice.dto.SuggestionDto;
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.event.PackageBatchChangedEvent;
+import com.tpbs.packageservice.event.PackageChangedEvent;
+import com.tpbs.packageservice.mapper.TravelPackageMapper;
+import com.tpbs.packageservice.repository.TravelPackageRepository;
+import com.tpbs.packageservice.trending.PackageTrendingTracker;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Typeahead over package titles and destination names. Completions are compiled into
+ * an immutable table of sorted keys plus a max segment tree over their weights, so a
+ * prefix is a binary search and the top-k inside the matching range is extracted in
+ * O(k log n). The table is rebuilt off the request path after package changes and
+ * swapped in atomically; readers never lock.
+ *
+ * Package completions are boosted by popularity: the booking count from
+ * package_summaries and the current trending score, both log-scaled and capped, so a
+ * popular package ranks first among matches of the same kind. Each rebuild reads them
+ * afresh, and a rebuild also runs every few minutes to pick up new bookings.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PackageSuggester {
+
+    private static final int TITLE_WEIGHT = 300;
+    private static final int TITLE_WORD_WEIGHT = 200;
+    private static final int DESTINATION_WEIGHT = 100;
+    private static final double BOOKING_BOOST = 10;
+    private static final double TRENDING_BOOST = 20;
+    private static final int MAX_POPULARITY_BOOST = 100;
+    private static final long POPULARITY_REFRESH_MINUTES = 5;
+
+    // Capitalized words (and runs of them) in descriptions are treated as place names
+    private static final Pattern PROPER_NOUN = Pattern.compile("\\b\\p{Lu}[\\p{L}'-]+(?:\\s+\\p{Lu}[\\p{L}'-]+)*");
+    private static final Set<String> NOT_DESTINATIONS = Set.of(
+            "Experience", "Explore", "Discover", "Enjoy", "Visit", "Luxury", "Mountain", "City", "The", "A", "An");
+
+    private final TravelPackageRepository packageRepository;
+    private final TravelPackageMapper packageMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final PackageTrendingTracker trendingTracker;
+
+    private final Map<Long, List<Completion>> byPackage = new ConcurrentHashMap<>();
+    // Changes committed while the startup load was running; replayed once it finishes.
+    // Both guarded by this
+    private final List<PackageChangedEvent> pending = new ArrayList<>();
+    private boolean loaded;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "package-suggest-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Table table = Table.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        List<TravelPackageDto> packages = packageRepository.findAll().stream().map(packageMapper::toDto).toList();
+        synchronized (this) {
+            for (TravelPackageDto travelPackage : packages) {
+                byPackage.put(travelPackage.getPackageId(), completionsFor(travelPackage));
+            }
+            pending.forEach(this::apply);
+            pending.clear();
+            loaded = true;
+        }
+        rebuild();
+        if (!rebuilder.isShutdown()) {
+            rebuilder.scheduleWithFixedDelay(this::scheduleRebuild,
+                    POPULARITY_REFRESH_MINUTES, POPULARITY_REFRESH_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPackageChanged(PackageChangedEvent event) {
+        synchronized (this) {
+            if (!loaded) {
+                pending.add(event);
+                return;
+            }
+            apply(event);
+        }
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPackagesChanged(PackageBatchChangedEvent batch) {
+        synchronized (this) {
+            if (!loaded) {
+                pending.addAll(batch.changes());
+                return;
+            }
+            batch.changes().forEach(this::apply);
+        }
+        scheduleRebuild();
+    }
+
+    private void apply(PackageChangedEvent event) {
+        if (event.isDeleted()) {
+            byPackage.remove(event.packageId());
+        } else {
+            byPackage.put(event.packageId(), completionsFor(event.travelPackage()));
+        }
+    }
+
+    private void scheduleRebuild() {
+        // Coalesce bursts of writes into a single rebuild
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.submit(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return table.top(key, limit);
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        // Merge identical completions across packages; shared destinations gain weight
+        Map<String, Completion> merged = new HashMap<>();
+        for (List<Completion> completions : byPackage.values()) {
+            for (Completion c : completions) {
+                merged.merge(c.key + '\u0000' + c.text + '\u0000' + c.packageId, c,
+                        (a, b) -> new Completion(a.key, a.text, a.type, a.packageId, a.weight + b.weight / 10 + 1));
+            }
+        }
+        Map<Long, Integer> boosts = popularityBoosts();
+        Completion[] entries = merged.values().stream()
+                .map(c -> c.packageId == null ? c : new Completion(c.key, c.text, c.type, c.packageId,
+                        c.weight + boosts.getOrDefault(c.packageId, 0)))
+                .toArray(Completion[]::new);
+        Arrays.sort(entries, (a, b) -> a.key.compareTo(b.key));
+        table = new Table(entries);
+        log.debug("Rebuilt suggestion table with {} entries in {} ms",
+                entries.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Package id -> extra weight from bookings and trending; no boosts if they cannot be read
+    private Map<Long, Integer> popularityBoosts() {
+        Map<Long, Double> popularity = new HashMap<>();
+        try {
+            jdbcTemplate.query("SELECT package_id, booking_count FROM package_summaries WHERE booking_count > 0",
+                    rs -> {
+                        popularity.put(rs.getLong("package_id"), BOOKING_BOOST * Math.log1p(rs.getLong("booking_count")));
+                    });
+        } catch (RuntimeException e) {
+            log.warn("Could not read booking counts for suggestions: {}", e.getMessage());
+        }
+        trendingTracker.topScores().forEach((id, score) ->
+                popularity.merge(id, TRENDING_BOOST * Math.log1p(score), Double::sum));
+        Map<Long, Integer> boosts = new HashMap<>();
+        popularity.forEach((id, boost) -> boosts.put(id, (int) Math.min(MAX_POPULARITY_BOOST, Math.round(boost))));
+        return boosts;
+    }
+
+    private List<Completion> completionsFor(TravelPackageDto travelPackage) {
+        List<Completion> completions = new ArrayList<>();
+        String title = travelPackage.getTitle();
+        Long id = travelPackage.getPackageId();
+        if (title != null && !title.isBlank()) {
+            String normalizedTitle = normalize(title);
+            completions.add(new Completion(normalizedTitle, title, "package", id, TITLE_WEIGHT));
+            // Every word boundary inside the title, so "adv" finds "Paris Adventure"
+            List<String> words = TextAnalyzer.words(title);
+            for (int i = 1; i < words.size(); i++) {
+                String suffix = String.join(" ", words.subList(i, words.size()));
+                completions.add(new Completion(suffix, title, "package", id, TITLE_WORD_WEIGHT));
+            }
+        }
+        Set<String> seen = new HashSet<>();
+        if (travelPackage.getDescription() != null) {
+            Matcher matcher = PROPER_NOUN.matcher(travelPackage.getDescription());
+            while (matcher.find()) {
+                String place = matcher.group();
+                if (!NOT_DESTINATIONS.contains(place.split("\\s+")[0]) && seen.add(place)) {
+                    completions.add(new Completion(normalize(place), place, "destination", null, DESTINATION_WEIGHT));
+                }
+            }
+        }
+        return completions;
+    }
+
+    private static String normalize(String text) {
+        return String.join(" ", TextAnalyzer.words(text));
+    }
+
+    private record Completion(String key, String text, String type, Long packageId, int weight) {
+    }
+
+    // Immutable sorted keys with a max segment tree over weights
+    private static final class Table {
+        private static final Table EMPTY = new Table(new Completion[0]);
+
+        private final String[] keys;
+        private final Completion[] entries;
+        private final int[] tree;
+        private final int size;
+
+        private Table(Completion[] entries) {
+            this.entries = entries;
+            this.size = entries.length;
+            this.keys = new String[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = entries[i].key;
+            }
+            this.tree = new int[Math.max(2, 2 * size)];
+            for (int i = 0; i < size; i++) {
+                tree[size + i] = i;
+            }
+            for (int i = size - 1; i > 0; i--) {
+                tree[i] = heavier(tree[2 * i], tree[2 * i + 1]);
+            }
+        }
+
+        private List<SuggestionDto> top(String prefix, int limit) {
+            int lo = lowerBound(prefix);
+            int hi = lowerBound(prefix + Character.MAX_VALUE);
+            List<SuggestionDto> results = new ArrayList<>(limit);
+            if (lo >= hi) {
+                return results;
+            }
+            // Best-first over sub-ranges: pop the range max, emit it, split around it
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> Integer.compare(
+                    entries[b[2]].weight, entries[a[2]].weight));
+            ranges.add(new int[]{lo, hi, argMax(lo, hi)});
+            Set<String> emitted = new HashSet<>();
+            while (!ranges.isEmpty() && results.size() < limit) {
+                int[] range = ranges.poll();
+                Completion best = entries[range[2]];
+                if (emitted.add(best.type + '\u0000' + best.text)) {
+                    results.add(new SuggestionDto(best.text, best.type, best.packageId));
+                }
+                if (range[0] < range[2]) {
+                    ranges.add(new int[]{range[0], range[2], argMax(range[0], range[2])});
+                }
+                if (range[2] + 1 < range[1]) {
+                    ranges.add(new int[]{range[2] + 1, range[1], argMax(range[2] + 1, range[1])});
+                }
+            }
+            return results;
+        }
+
+        private int argMax(int from, int to) {
+            int best = from;
+            for (int l = from + size, r = to + size; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    best = heavier(best, tree[l++]);
+                }
+                if ((r & 1) == 1) {
+                    best = heavier(best, tree[--r]);
+                }
+            }
+            return best;
+        }
+
+        private int heavier(int a, int b) {
+            return entries[b].weight > entries[a].weight ? b : a;
+        }
+
+        private int lowerBound(String key) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.tpbs.packageservice.service;
+
+import com.tpbs.packageservice.dto.BookingStatsDto;
+import com.tpbs.packageservice.dto.PackageSummaryDto;
+import com.tpbs.packageservice.dto.ReviewStatsDto;
+
+import java.util.List;
+
+public interface PackageSummaryService {
+    
+    PackageSummaryDto getSummary(Long packageId);
+    int updateReviewStats(List<ReviewStatsDto> stats);
+    int updateBookingStats(List<BookingStatsDto> stats);
+}
@@ -0,0 +1,18 @@
+package com.tpbs.packageservice.service;
+
+import com.tpbs.packageservice.dto.PriceQuoteDto;
+import com.tpbs.packageservice.dto.PricingRuleDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PricingService {
+    
+    PriceQuoteDto quote(Long packageId, LocalDate from, LocalDate to);
+    List<PricingRuleDto> getRules(Long packageId);
+    PricingRuleDto createRule(PricingRuleDto ruleDto);
+    PricingRuleDto getRule(Long ruleId);
+    void deleteRule(Long ruleId);
+    void updateOccupancy(Long packageId, LocalDate departureDate, BigDecimal occupancy);
+}
@@ -1,19 +1,44 @@
 package com.tpbs.packageservice.service;
 
+import com.tpbs.packageservice.dto.BulkUpdateRequestDto;
+import com.tpbs.packageservice.dto.BulkUpdateResultDto;
+import com.tpbs.packageservice.dto.FacetQueryResultDto;
+import com.tpbs.packageservice.dto.ImportResultDto;
+import com.tpbs.packageservice.dto.PackagePageDto;
+import com.tpbs.packageservice.dto.SimilarPackageDto;
+import com.tpbs.packageservice.dto.SuggestionDto;
 import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.dto.TrendingPackageDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 public interface TravelPackageService {
     
     List<TravelPackageDto> getAllPackages();
+    String getCatalogETag();
     TravelPackageDto getPackageById(Long id);
+    Map<Long, TravelPackageDto> getPackagesByIds(Collection<Long> ids);
     List<TravelPackageDto> getPackagesByAgent(Long agentId);
+    PackagePageDto getPackagesPage(Long agentId, String sort, String cursor, Integer limit);
     TravelPackageDto createPackage(TravelPackageDto packageDto);
+    ImportResultDto importPackages(InputStream body, String contentType, Long agentId) throws IOException;
     TravelPackageDto updatePackage(Long id, TravelPackageDto packageDto);
+    BulkUpdateResultDto bulkUpdatePackages(BulkUpdateRequestDto request);
     void deletePackage(Long id);
     List<TravelPackageDto> searchPackages(String keyword);
+    List<SuggestionDto> suggest(String prefix, Integer limit);
+    FacetQueryResultDto filterPackages(BigDecimal minPrice, BigDecimal maxPrice, List<String> priceBands,
+                                       Integer minDays, Integer maxDays, List<String> services,
+                                       boolean matchAllServices, Integer limit);
+    List<TrendingPackageDto> getTrendingPackages(Integer limit);
+    List<SimilarPackageDto> getSimilarPackages(Long id, Integer limit);
+    void recordPackageView(Long id);
+    void recordPackageBooked(Long id);
     
     // Enhanced methods with cross-service data
     Map<String, Object> getPackageWithBookingDetails(Long packageId);
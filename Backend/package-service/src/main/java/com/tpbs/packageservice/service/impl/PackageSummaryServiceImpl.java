@@ -0,0 +1,106 @@
+package com.tpbs.packageservice.service.impl;
+
+import com.tpbs.packageservice.dto.BookingStatsDto;
+import com.tpbs.packageservice.dto.PackageSummaryDto;
+import com.tpbs.packageservice.dto.ReviewStatsDto;
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.event.PackageBatchChangedEvent;
+import com.tpbs.packageservice.event.PackageChangedEvent;
+import com.tpbs.packageservice.repository.PackageSummaryRepository;
+import com.tpbs.packageservice.service.PackageSummaryService;
+import com.tpbs.packageservice.service.TravelPackageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PackageSummaryServiceImpl implements PackageSummaryService {
+
+    private final PackageSummaryRepository summaryRepository;
+    private final TravelPackageService packageService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public PackageSummaryDto getSummary(Long packageId) {
+        TravelPackageDto travelPackage = packageService.getPackageById(packageId);
+        return summaryRepository.findById(packageId)
+                .map(summary -> new PackageSummaryDto(travelPackage, summary.getAverageRating(),
+                        summary.getReviewCount(), summary.getBookingCount(), summary.getConfirmedCount(),
+                        summary.getUpdatedAt()))
+                .orElseGet(() -> new PackageSummaryDto(travelPackage, null, 0, 0, 0, null));
+    }
+
+    @Override
+    public int updateReviewStats(List<ReviewStatsDto> stats) {
+        Set<Long> known = knownPackages(stats.stream().map(ReviewStatsDto::getPackageId).toList());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = stats.stream()
+                .filter(s -> known.contains(s.getPackageId()))
+                .map(s -> new Object[]{s.getPackageId(),
+                        s.getAverageRating() != null ? s.getAverageRating().setScale(2, RoundingMode.HALF_UP) : null,
+                        s.getReviewCount(), now})
+                .toList();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO package_summaries (package_id, average_rating, review_count, booking_count, confirmed_count, updated_at) " +
+                "VALUES (?, ?, ?, 0, 0, ?) ON DUPLICATE KEY UPDATE average_rating = VALUES(average_rating), " +
+                "review_count = VALUES(review_count), updated_at = VALUES(updated_at)",
+                rows);
+        log.debug("Updated review totals of {} package(s)", rows.size());
+        return rows.size();
+    }
+
+    @Override
+    public int updateBookingStats(List<BookingStatsDto> stats) {
+        Set<Long> known = knownPackages(stats.stream().map(BookingStatsDto::getPackageId).toList());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = stats.stream()
+                .filter(s -> known.contains(s.getPackageId()))
+                .map(s -> new Object[]{s.getPackageId(), s.getBookingCount(), s.getConfirmedCount(), now})
+                .toList();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO package_summaries (package_id, review_count, booking_count, confirmed_count, updated_at) " +
+                "VALUES (?, 0, ?, ?, ?) ON DUPLICATE KEY UPDATE booking_count = VALUES(booking_count), " +
+                "confirmed_count = VALUES(confirmed_count), updated_at = VALUES(updated_at)",
+                rows);
+        log.debug("Updated booking totals of {} package(s)", rows.size());
+        return rows.size();
+    }
+
+    // Runs after the deleting transaction has committed, so it needs its own
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPackageChanged(PackageChangedEvent event) {
+        if (event.isDeleted()) {
+            summaryRepository.deleteAllByIdInBatch(List.of(event.packageId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPackagesChanged(PackageBatchChangedEvent batch) {
+        List<Long> deleted = batch.changes().stream()
+                .filter(PackageChangedEvent::isDeleted)
+                .map(PackageChangedEvent::packageId)
+                .toList();
+        if (!deleted.isEmpty()) {
+            summaryRepository.deleteAllByIdInBatch(deleted);
+        }
+    }
+
+    // Totals for deleted packages (e.g. their old bookings) are not stored
+    private Set<Long> knownPackages(List<Long> packageIds) {
+        return packageService.getPackagesByIds(packageIds).keySet();
+    }
+}
@@ -0,0 +1,147 @@
+package com.tpbs.packageservice.service.impl;
+
+import com.tpbs.packageservice.dto.PriceQuoteDto;
+import com.tpbs.packageservice.dto.PricingRuleDto;
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.model.PackageOccupancy;
+import com.tpbs.packageservice.model.PricingRule;
+import com.tpbs.packageservice.model.PricingRuleType;
+import com.tpbs.packageservice.pricing.PricingEngine;
+import com.tpbs.packageservice.repository.PackageOccupancyRepository;
+import com.tpbs.packageservice.repository.PricingRuleRepository;
+import com.tpbs.packageservice.service.PricingService;
+import com.tpbs.packageservice.service.TravelPackageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PricingServiceImpl implements PricingService {
+    
+    private final PricingEngine pricingEngine;
+    private final PricingRuleRepository ruleRepository;
+    private final PackageOccupancyRepository occupancyRepository;
+    private final TravelPackageService packageService;
+    
+    @Override
+    public PriceQuoteDto quote(Long packageId, LocalDate from, LocalDate to) {
+        TravelPackageDto travelPackage = packageService.getPackageById(packageId);
+        LocalDate first = from != null ? from : LocalDate.now();
+        LocalDate last = to != null ? to : first;
+        if (last.isBefore(first)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        // Bounds the list-price fallback too, which has no table to limit it
+        if (last.toEpochDay() - first.toEpochDay() >= pricingEngine.horizonDays()) {
+            throw new IllegalArgumentException("At most " + pricingEngine.horizonDays() + " days can be quoted at once");
+        }
+        
+        long[] cents;
+        Optional<PricingEngine.PriceTable> table = pricingEngine.table(packageId);
+        if (table.isPresent()) {
+            if (first.isBefore(table.get().startDate()) || last.isAfter(table.get().endDate())) {
+                throw new IllegalArgumentException("Prices are available for departures from "
+                        + table.get().startDate() + " to " + table.get().endDate());
+            }
+            cents = PricingEngine.slice(table.get(), first, last);
+        } else {
+            // Tables are still being compiled; quote the list price
+            cents = new long[(int) (last.toEpochDay() - first.toEpochDay() + 1)];
+            Arrays.fill(cents, travelPackage.getPrice().movePointRight(2).longValue());
+        }
+        
+        List<PriceQuoteDto.DailyPrice> prices = new ArrayList<>(cents.length);
+        int lowest = 0;
+        for (int i = 0; i < cents.length; i++) {
+            prices.add(new PriceQuoteDto.DailyPrice(first.plusDays(i), PricingEngine.fromCents(cents[i])));
+            if (cents[i] < cents[lowest]) {
+                lowest = i;
+            }
+        }
+        return new PriceQuoteDto(packageId, travelPackage.getPrice(), PricingEngine.fromCents(cents[lowest]),
+                first.plusDays(lowest), prices);
+    }
+    
+    @Override
+    public List<PricingRuleDto> getRules(Long packageId) {
+        List<PricingRule> rules = packageId != null
+                ? ruleRepository.findByPackageId(packageId)
+                : ruleRepository.findByPackageIdIsNull();
+        return rules.stream().map(this::toDto).toList();
+    }
+    
+    @Override
+    public PricingRuleDto createRule(PricingRuleDto ruleDto) {
+        validate(ruleDto);
+        PricingRule rule = toEntity(ruleDto);
+        rule.setRuleId(null);
+        PricingRule saved = ruleRepository.save(rule);
+        pricingEngine.rulesChanged(saved.getPackageId());
+        log.info("Created {} pricing rule {} for package {}", saved.getType(), saved.getRuleId(), saved.getPackageId());
+        return toDto(saved);
+    }
+    
+    @Override
+    public PricingRuleDto getRule(Long ruleId) {
+        return ruleRepository.findById(ruleId)
+                .map(this::toDto)
+                .orElseThrow(() -> new IllegalArgumentException("Pricing rule not found with id: " + ruleId));
+    }
+    
+    @Override
+    public void deleteRule(Long ruleId) {
+        PricingRule rule = ruleRepository.findById(ruleId)
+                .orElseThrow(() -> new IllegalArgumentException("Pricing rule not found with id: " + ruleId));
+        ruleRepository.delete(rule);
+        pricingEngine.rulesChanged(rule.getPackageId());
+    }
+    
+    @Override
+    public void updateOccupancy(Long packageId, LocalDate departureDate, BigDecimal occupancy) {
+        if (departureDate == null || occupancy == null
+                || occupancy.signum() < 0 || occupancy.compareTo(BigDecimal.ONE) > 0) {
+            throw new IllegalArgumentException("departureDate and an occupancy between 0 and 1 are required");
+        }
+        packageService.getPackageById(packageId);
+        occupancyRepository.save(new PackageOccupancy(packageId, departureDate, occupancy));
+        pricingEngine.occupancyChanged(packageId, departureDate, occupancy.doubleValue());
+    }
+    
+    private static void validate(PricingRuleDto rule) {
+        if (rule.getType() == null) {
+            throw new IllegalArgumentException("type is required (SEASONAL, EARLY_BIRD or OCCUPANCY)");
+        }
+        if (rule.getMultiplier() == null || rule.getMultiplier().signum() <= 0) {
+            throw new IllegalArgumentException("multiplier is required and must be greater than 0");
+        }
+        if (rule.getStartDate() != null && rule.getEndDate() != null && rule.getEndDate().isBefore(rule.getStartDate())) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        if (rule.getType() == PricingRuleType.EARLY_BIRD && (rule.getMinDaysAhead() == null || rule.getMinDaysAhead() < 0)) {
+            throw new IllegalArgumentException("minDaysAhead is required for EARLY_BIRD rules");
+        }
+        if (rule.getType() == PricingRuleType.OCCUPANCY && (rule.getMinOccupancy() == null
+                || rule.getMinOccupancy().signum() < 0 || rule.getMinOccupancy().compareTo(BigDecimal.ONE) > 0)) {
+            throw new IllegalArgumentException("minOccupancy between 0 and 1 is required for OCCUPANCY rules");
+        }
+    }
+    
+    private PricingRuleDto toDto(PricingRule rule) {
+        return new PricingRuleDto(rule.getRuleId(), rule.getPackageId(), rule.getType(), rule.getStartDate(),
+                rule.getEndDate(), rule.getMultiplier(), rule.getMinDaysAhead(), rule.getMinOccupancy());
+    }
+    
+    private PricingRule toEntity(PricingRuleDto dto) {
+        return new PricingRule(dto.getRuleId(), dto.getPackageId(), dto.getType(), dto.getStartDate(),
+                dto.getEndDate(), dto.getMultiplier(), dto.getMinDaysAhead(), dto.getMinOccupancy());
+    }
+}
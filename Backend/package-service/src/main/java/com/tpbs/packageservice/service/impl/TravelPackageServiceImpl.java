@@ -1,20 +1,48 @@
 package com.tpbs.packageservice.service.impl;
 
+import com.tpbs.packageservice.bulk.PackageBulkImporter;
+import com.tpbs.packageservice.bulk.PackageBulkUpdater;
+import com.tpbs.packageservice.catalog.PackageCatalog;
 import com.tpbs.packageservice.client.BookingServiceClient;
-import com.tpbs.packageservice.client.PaymentServiceClient;
+import com.tpbs.common.client.UserReplica;
 import com.tpbs.packageservice.client.UserServiceClient;
+import com.tpbs.packageservice.dto.BulkUpdateRequestDto;
+import com.tpbs.packageservice.dto.BulkUpdateResultDto;
+import com.tpbs.packageservice.dto.FacetQueryResultDto;
+import com.tpbs.packageservice.dto.ImportResultDto;
+import com.tpbs.packageservice.dto.PackagePageDto;
+import com.tpbs.packageservice.dto.SimilarPackageDto;
+import com.tpbs.packageservice.dto.SuggestionDto;
 import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.dto.TrendingPackageDto;
+import com.tpbs.packageservice.enrichment.BookingEnrichmentPipeline;
+import com.tpbs.packageservice.event.PackageChangedEvent;
 import com.tpbs.packageservice.exception.PackageNotFoundException;
 import com.tpbs.packageservice.mapper.TravelPackageMapper;
 import com.tpbs.packageservice.model.TravelPackage;
 import com.tpbs.packageservice.repository.TravelPackageRepository;
+import com.tpbs.packageservice.search.PackageFacetIndex;
+import com.tpbs.packageservice.search.PackageSearchCache;
+import com.tpbs.packageservice.search.PackageSearchIndex;
+import com.tpbs.packageservice.search.PackageSimilarityIndex;
+import com.tpbs.packageservice.search.PackageSuggester;
 import com.tpbs.packageservice.service.TravelPackageService;
+import com.tpbs.packageservice.trending.PackageTrendingTracker;
+import com.tpbs.packageservice.util.PackageCursor;
+import com.tpbs.packageservice.util.ServiceListUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -27,36 +55,135 @@ public class TravelPackageServiceImpl implements TravelPackageService {
     private final TravelPackageRepository packageRepository;
     private final TravelPackageMapper packageMapper;
     private final BookingServiceClient bookingServiceClient;
-    private final PaymentServiceClient paymentServiceClient;
     private final UserServiceClient userServiceClient;
+    private final UserReplica userReplica;
+    private final PackageCatalog catalog;
+    private final PackageSearchIndex searchIndex;
+    private final PackageSearchCache searchCache;
+    private final PackageSuggester suggester;
+    private final PackageFacetIndex facetIndex;
+    private final PackageSimilarityIndex similarityIndex;
+    private final BookingEnrichmentPipeline enrichmentPipeline;
+    private final PackageBulkImporter bulkImporter;
+    private final PackageBulkUpdater bulkUpdater;
+    private final PackageTrendingTracker trendingTracker;
+    private final ApplicationEventPublisher eventPublisher;
     
+    @Value("${packages.pagination.default-limit:20}")
+    private int defaultPageLimit;
+    
+    @Value("${packages.pagination.max-limit:200}")
+    private int maxPageLimit;
+    
+    @Value("${packages.trending.top-k:20}")
+    private int trendingTopK;
+    
+    @Value("${packages.similar.neighbors:10}")
+    private int similarNeighbors;
+    
+    // Served from the catalog snapshot; no transaction (or connection) unless warming up
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<TravelPackageDto> getAllPackages() {
         log.debug("Fetching all travel packages");
+        Optional<PackageCatalog.Snapshot> snapshot = catalog.snapshot();
+        if (snapshot.isPresent()) {
+            return snapshot.get().packages();
+        }
+        // Catalog is still warming up; fall back to the database
         return packageRepository.findAll().stream()
                 .map(packageMapper::toDto)
                 .collect(Collectors.toList());
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String getCatalogETag() {
+        // Null while warming up: responses are then served from MySQL without an ETag
+        return catalog.snapshot().map(PackageCatalog.Snapshot::etag).orElse(null);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public TravelPackageDto getPackageById(Long id) {
         log.debug("Fetching travel package with id: {}", id);
+        Optional<PackageCatalog.Snapshot> snapshot = catalog.snapshot();
+        if (snapshot.isPresent()) {
+            return snapshot.get().get(id)
+                    .orElseThrow(() -> new PackageNotFoundException("Package not found with id: " + id));
+        }
         TravelPackage travelPackage = packageRepository.findById(id)
                 .orElseThrow(() -> new PackageNotFoundException("Package not found with id: " + id));
         return packageMapper.toDto(travelPackage);
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, TravelPackageDto> getPackagesByIds(Collection<Long> ids) {
+        // Unknown ids are simply absent from the result
+        Map<Long, TravelPackageDto> packages = new LinkedHashMap<>();
+        Optional<PackageCatalog.Snapshot> snapshot = catalog.snapshot();
+        if (snapshot.isPresent()) {
+            for (Long id : ids) {
+                snapshot.get().get(id).ifPresent(p -> packages.put(id, p));
+            }
+            return packages;
+        }
+        for (TravelPackage travelPackage : packageRepository.findAllById(new HashSet<>(ids))) {
+            packages.put(travelPackage.getPackageId(), packageMapper.toDto(travelPackage));
+        }
+        return packages;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<TravelPackageDto> getPackagesByAgent(Long agentId) {
         log.debug("Fetching travel packages for agent: {}", agentId);
+        Optional<PackageCatalog.Snapshot> snapshot = catalog.snapshot();
+        if (snapshot.isPresent()) {
+            return snapshot.get().byAgent(agentId);
+        }
         return packageRepository.findByAgentId(agentId).stream()
                 .map(packageMapper::toDto)
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public PackagePageDto getPackagesPage(Long agentId, String sort, String cursor, Integer limit) {
+        PackageCursor.Sort sortKey = PackageCursor.Sort.parse(sort);
+        PackageCursor after = cursor == null || cursor.isBlank()
+                ? PackageCursor.start(sortKey)
+                : PackageCursor.decode(cursor, sortKey);
+        int pageLimit = limit == null || limit <= 0 ? defaultPageLimit : Math.min(limit, maxPageLimit);
+        
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        PageRequest window = PageRequest.of(0, pageLimit + 1);
+        List<TravelPackage> rows = switch (sortKey) {
+            case ID -> packageRepository.findPageById(agentId, after.packageId(), window);
+            case PRICE -> packageRepository.findPageByPrice(agentId, after.priceKey(), after.packageId(), window);
+            case TITLE -> packageRepository.findPageByTitle(agentId, after.key(), after.packageId(), window);
+        };
+        
+        boolean hasMore = rows.size() > pageLimit;
+        List<TravelPackage> page = rows.subList(0, Math.min(pageLimit, rows.size()));
+        String nextCursor = null;
+        if (hasMore) {
+            TravelPackage last = page.get(page.size() - 1);
+            String key = switch (sortKey) {
+                case ID -> "";
+                case PRICE -> last.getPrice().toPlainString();
+                case TITLE -> last.getTitle();
+            };
+            nextCursor = new PackageCursor(sortKey, key, last.getPackageId()).encode();
+        }
+        
+        List<TravelPackageDto> packages = page.stream()
+                .map(packageMapper::toDto)
+                .collect(Collectors.toList());
+        return new PackagePageDto(packages, nextCursor, hasMore, pageLimit, sortKey.name().toLowerCase(Locale.ROOT));
+    }
+    
     @Override
     public TravelPackageDto createPackage(TravelPackageDto packageDto) {
         log.debug("Creating new travel package: {}", packageDto.getTitle());
@@ -64,7 +191,19 @@ public class TravelPackageServiceImpl implements TravelPackageService {
         travelPackage.setPackageId(null); // Ensure new entity
         TravelPackage savedPackage = packageRepository.save(travelPackage);
         log.info("Created travel package with id: {}", savedPackage.getPackageId());
-        return packageMapper.toDto(savedPackage);
+        TravelPackageDto created = packageMapper.toDto(savedPackage);
+        eventPublisher.publishEvent(new PackageChangedEvent(created.getPackageId(), created));
+        return created;
+    }
+    
+    @Override
+    // Each chunk commits in its own transaction inside the importer
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportResultDto importPackages(InputStream body, String contentType, Long agentId) throws IOException {
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv")) {
+            return bulkImporter.importCsv(body, agentId);
+        }
+        return bulkImporter.importJson(body, agentId);
     }
     
     @Override
@@ -77,7 +216,30 @@ public class TravelPackageServiceImpl implements TravelPackageService {
         
         TravelPackage updatedPackage = packageRepository.save(existingPackage);
         log.info("Updated travel package with id: {}", id);
-        return packageMapper.toDto(updatedPackage);
+        TravelPackageDto updated = packageMapper.toDto(updatedPackage);
+        eventPublisher.publishEvent(new PackageChangedEvent(id, updated));
+        return updated;
+    }
+    
+    @Override
+    // Each chunk commits in its own transaction inside the updater
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkUpdateResultDto bulkUpdatePackages(BulkUpdateRequestDto request) {
+        if (request.getPriceChangePercent() == null && request.getDuration() == null
+                && request.getIncludedServices() == null && request.getImage() == null) {
+            throw new IllegalArgumentException("Nothing to update: set priceChangePercent, duration, includedServices or image");
+        }
+        if (request.getPriceChangePercent() != null && request.getPriceChangePercent().compareTo(BigDecimal.valueOf(-100)) <= 0) {
+            throw new IllegalArgumentException("priceChangePercent must be greater than -100");
+        }
+        if (request.getDuration() != null && request.getDuration().isBlank()) {
+            throw new IllegalArgumentException("duration must not be blank");
+        }
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice().compareTo(request.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+        return bulkUpdater.update(request);
     }
     
     @Override
@@ -88,16 +250,106 @@ public class TravelPackageServiceImpl implements TravelPackageService {
         }
         packageRepository.deleteById(id);
         log.info("Deleted travel package with id: {}", id);
+        eventPublisher.publishEvent(new PackageChangedEvent(id, null));
     }
       @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<TravelPackageDto> searchPackages(String keyword) {
         log.debug("Searching travel packages with keyword: {}", keyword);
+        if (searchIndex.isReady()) {
+            return searchCache.search(keyword);
+        }
+        // Index is still warming up; fall back to the database scan
         return packageRepository.searchPackages(keyword).stream()
                 .map(packageMapper::toDto)
                 .collect(Collectors.toList());
     }
     
+    @Override
+    public List<SuggestionDto> suggest(String prefix, Integer limit) {
+        int max = limit == null || limit <= 0 ? 10 : Math.min(limit, 50);
+        return suggester.suggest(prefix, max);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public FacetQueryResultDto filterPackages(BigDecimal minPrice, BigDecimal maxPrice, List<String> priceBands,
+                                              Integer minDays, Integer maxDays, List<String> services,
+                                              boolean matchAllServices, Integer limit) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+        if (minDays != null && maxDays != null && minDays > maxDays) {
+            throw new IllegalArgumentException("minDays must not exceed maxDays");
+        }
+        int max = limit == null || limit <= 0 ? 50 : Math.min(limit, 500);
+        if (facetIndex.isReady()) {
+            return facetIndex.query(minPrice, maxPrice, priceBands, minDays, maxDays, services, matchAllServices, max);
+        }
+        // Index is still warming up; filter in the database on the structured columns (no facet counts)
+        List<TravelPackage> candidates;
+        Set<Long> serviceMatches = null;
+        if (services != null && !services.isEmpty()) {
+            Set<String> keys = services.stream().map(ServiceListUtil::key).collect(Collectors.toSet());
+            serviceMatches = new HashSet<>(packageRepository.findIdsWithServices(keys, matchAllServices ? keys.size() : 1));
+        }
+        if (minDays != null || maxDays != null) {
+            candidates = packageRepository.findByDurationDaysBetween(
+                    minDays != null ? minDays : Integer.MIN_VALUE, maxDays != null ? maxDays : Integer.MAX_VALUE);
+        } else if (serviceMatches != null) {
+            candidates = packageRepository.findAllById(serviceMatches);
+        } else {
+            candidates = packageRepository.findAll();
+        }
+        Set<Long> requiredIds = serviceMatches;
+        List<TravelPackageDto> matches = candidates.stream()
+                .filter(p -> requiredIds == null || requiredIds.contains(p.getPackageId()))
+                .filter(p -> minPrice == null || p.getPrice().compareTo(minPrice) >= 0)
+                .filter(p -> maxPrice == null || p.getPrice().compareTo(maxPrice) <= 0)
+                .filter(p -> priceBands == null || priceBands.isEmpty() || facetIndex.inPriceBands(p.getPrice(), priceBands))
+                .sorted(Comparator.comparing(TravelPackage::getPrice).thenComparing(TravelPackage::getPackageId))
+                .map(packageMapper::toDto)
+                .collect(Collectors.toList());
+        return new FacetQueryResultDto(matches.subList(0, Math.min(max, matches.size())), matches.size(), Map.of());
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<TrendingPackageDto> getTrendingPackages(Integer limit) {
+        int max = limit == null || limit <= 0 ? 10 : Math.min(limit, trendingTopK);
+        return trendingTracker.trending(max);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<SimilarPackageDto> getSimilarPackages(Long id, Integer limit) {
+        getPackageById(id);
+        int max = limit == null || limit <= 0 ? 6 : Math.min(limit, similarNeighbors);
+        List<SimilarPackageDto> similar = new ArrayList<>();
+        for (PackageSimilarityIndex.Neighbor neighbor : similarityIndex.similar(id, max)) {
+            try {
+                similar.add(new SimilarPackageDto(getPackageById(neighbor.packageId()), neighbor.similarity()));
+            } catch (PackageNotFoundException e) {
+                // Deleted since the neighbours were computed; the index catches up asynchronously
+            }
+        }
+        return similar;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public void recordPackageView(Long id) {
+        trendingTracker.recordView(id);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public void recordPackageBooked(Long id) {
+        // Rejects unknown ids so they never enter the ranking
+        getPackageById(id);
+        trendingTracker.recordBooking(id);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> getPackageWithBookingDetails(Long packageId) {
@@ -141,7 +393,8 @@ public class TravelPackageServiceImpl implements TravelPackageService {
     }
     
     @Override
-    @Transactional(readOnly = true)
+    // No connection is held while waiting on the remote lookups
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Map<String, Object> getAgentPackagesWithStatistics(Long agentId) {
         Map<String, Object> result = new HashMap<>();
         
@@ -153,106 +406,45 @@ public class TravelPackageServiceImpl implements TravelPackageService {
         int totalPackages = agentPackages.size();
         result.put("totalPackages", totalPackages);
         
-        // Try to get agent details (non-critical)
-        try {
-            ResponseEntity<Map<String, Object>> userResponse = 
-                userServiceClient.getUserById(agentId, "internal");
+        // Try to get agent details (non-critical), preferring the local user replica
+        Map<String, Object> replicatedAgent = userReplica.get(agentId).orElse(null);
+        if (replicatedAgent != null) {
+            result.put("agent", replicatedAgent);
+        } else {
+            try {
+                ResponseEntity<Map<String, Object>> userResponse = 
+                    userServiceClient.getUserById(agentId, "internal");
                 
-            if (userResponse.getStatusCode().is2xxSuccessful() && userResponse.getBody() != null) {
-                result.put("agent", userResponse.getBody().get("data"));
-            } else {
-                log.debug("Could not fetch agent details for agent {}", agentId);
+                if (userResponse.getStatusCode().is2xxSuccessful() && userResponse.getBody() != null) {
+                    result.put("agent", userResponse.getBody().get("data"));
+                } else {
+                    log.debug("Could not fetch agent details for agent {}", agentId);
+                    result.put("agent", Map.of("name", "Agent " + agentId, "id", agentId));
+                }
+            } catch (Exception e) {
+                log.warn("Failed to fetch agent details for agent {}: {}", agentId, e.getMessage());
                 result.put("agent", Map.of("name", "Agent " + agentId, "id", agentId));
             }
-        } catch (Exception e) {
-            log.warn("Failed to fetch agent details for agent {}: {}", agentId, e.getMessage());
-            result.put("agent", Map.of("name", "Agent " + agentId, "id", agentId));
         }
         
-        // Try to get booking statistics and actual booking data
-        int totalBookingsCount = 0;
-        int totalConfirmedBookings = 0;
-        double totalRevenue = 0.0;
-        List<Map<String, Object>> allBookings = new ArrayList<>();
+        // Bookings with user and payment details, fetched as a batched pipeline
+        BookingEnrichmentPipeline.Result enrichment = enrichmentPipeline.enrich(agentPackages);
+        List<Map<String, Object>> allBookings = enrichment.bookings();
         
-        for (TravelPackageDto pkg : agentPackages) {
-            try {
-                ResponseEntity<Map<String, Object>> bookingsResponse = 
-                    bookingServiceClient.getBookingsByPackage(pkg.getPackageId());
-                    
-                if (bookingsResponse.getStatusCode().is2xxSuccessful() && bookingsResponse.getBody() != null) {
-                    @SuppressWarnings("unchecked")
-                    List<Map<String, Object>> packageBookings = 
-                        (List<Map<String, Object>>) bookingsResponse.getBody().get("data");
-                        
-                    // Add package info, user info, and payment info to each booking for frontend display
-                    for (Map<String, Object> booking : packageBookings) {
-                        Map<String, Object> enrichedBooking = new HashMap<>(booking);
-                        enrichedBooking.put("packageInfo", pkg);
-                        
-                        // Fetch user details
-                        Long userId = booking.get("userId") != null ? 
-                            ((Number) booking.get("userId")).longValue() : null;
-                        if (userId != null) {
-                            try {
-                                log.info("🔍 Fetching user details for userId: {}", userId);
-                                ResponseEntity<Map<String, Object>> userResponse = 
-                                    userServiceClient.getUserById(userId, "internal");
-                                log.info("📡 User service response status: {}, body: {}", 
-                                    userResponse.getStatusCode(), userResponse.getBody());
-                                    
-                                if (userResponse.getStatusCode().is2xxSuccessful() && userResponse.getBody() != null) {
-                                    Map<String, Object> userInfo = (Map<String, Object>) userResponse.getBody().get("data");
-                                    log.info("✅ User info retrieved: {}", userInfo);
-                                    enrichedBooking.put("userInfo", userInfo);
-                                } else {
-                                    log.warn("❌ User service returned non-success response for userId: {}", userId);
-                                    enrichedBooking.put("userInfo", Map.of("name", "Unknown User", "id", userId));
-                                }
-                            } catch (Exception e) {
-                                log.error("❌ Exception fetching user details for userId {}: {}", userId, e.getMessage(), e);
-                                enrichedBooking.put("userInfo", Map.of("name", "Unknown User", "id", userId));
-                            }
-                        }
-                        
-                        // Fetch payment details if payment ID exists
-                        Long paymentId = booking.get("paymentId") != null ? 
-                            ((Number) booking.get("paymentId")).longValue() : null;
-                        if (paymentId != null) {
-                            try {
-                                ResponseEntity<Map<String, Object>> paymentResponse = 
-                                    paymentServiceClient.getPaymentById(paymentId);
-                                if (paymentResponse.getStatusCode().is2xxSuccessful() && paymentResponse.getBody() != null) {
-                                    Map<String, Object> paymentData = (Map<String, Object>) paymentResponse.getBody().get("data");
-                                    enrichedBooking.put("paymentInfo", paymentData);
-                                    
-                                    // Add to total revenue if payment is completed
-                                    String paymentStatus = (String) paymentData.get("status");
-                                    if ("COMPLETED".equalsIgnoreCase(paymentStatus)) {
-                                        Object amountObj = paymentData.get("amount");
-                                        if (amountObj instanceof Number) {
-                                            totalRevenue += ((Number) amountObj).doubleValue();
-                                        }
-                                    }
-                                }
-                            } catch (Exception e) {
-                                log.debug("Could not fetch payment details for paymentId {}: {}", paymentId, e.getMessage());
-                                enrichedBooking.put("paymentInfo", Map.of("status", "UNKNOWN", "amount", 0));
-                            }
-                        }
-                        
-                        allBookings.add(enrichedBooking);
-                    }
-                        
-                    totalBookingsCount += packageBookings.size();
-                    totalConfirmedBookings += (int) packageBookings.stream()
-                        .filter(b -> "confirmed".equals(b.get("status")))
-                        .count();
-                }
-            } catch (Exception e) {
-                log.debug("Could not fetch bookings for package {}: {}", pkg.getPackageId(), e.getMessage());
-                // Continue processing other packages
+        // Totals from booking-service's precomputed read model; recount locally if it is unreachable
+        long totalBookingsCount = enrichment.totalBookings();
+        long totalConfirmedBookings = enrichment.confirmedBookings();
+        double totalRevenue = enrichment.totalRevenue();
+        try {
+            ResponseEntity<Map<String, Object>> statsResponse = bookingServiceClient.getAgentStats(agentId);
+            if (statsResponse.getStatusCode().is2xxSuccessful() && statsResponse.getBody() != null
+                    && statsResponse.getBody().get("data") instanceof Map<?, ?> stats) {
+                totalBookingsCount = ((Number) stats.get("totalBookings")).longValue();
+                totalConfirmedBookings = ((Number) stats.get("confirmedBookings")).longValue();
+                totalRevenue = ((Number) stats.get("totalRevenue")).doubleValue();
             }
+        } catch (Exception e) {
+            log.debug("Agent statistics unavailable for agent {}, using recounted totals: {}", agentId, e.getMessage());
         }
         
         result.put("totalBookings", totalBookingsCount);
@@ -261,8 +453,8 @@ public class TravelPackageServiceImpl implements TravelPackageService {
         result.put("totalRevenue", totalRevenue); // ✅ Add total revenue calculation
         result.put("bookings", allBookings); // ✅ Add actual booking data for frontend display
         
-        log.info("Retrieved {} packages with {} bookings and statistics for agent {}", 
-                totalPackages, allBookings.size(), agentId);
+        log.info("Retrieved {} packages with {} bookings and statistics for agent {} (stage ms: {})", 
+                totalPackages, allBookings.size(), agentId, enrichment.stageMillis());
         return result;
     }
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+package com.tpbs.packageservice.trending;
+
+import com.tpbs.packageservice.catalog.PackageCatalog;
+import com.tpbs.packageservice.dto.TrendingPackageDto;
+import com.tpbs.packageservice.event.PackageBatchChangedEvent;
+import com.tpbs.packageservice.event.PackageChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * "Trending now" ranking from package views and new bookings. The hot path only bumps a
+ * striped LongAdder per package; a single scheduler thread periodically drains the
+ * adders into exponentially decayed scores (half-life {@code packages.trending.half-life-minutes})
+ * and keeps the top K in an immutable list, so reads are O(K) and never touch the
+ * database. Scores are checkpointed to package_trending_scores for restart recovery.
+ */
+@Slf4j
+@Component
+public class PackageTrendingTracker {
+
+    // Scores decayed below this are dropped so the map only holds recently active packages
+    private static final double MIN_SCORE = 0.01;
+
+    private record Entry(long packageId, double score) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PackageCatalog catalog;
+    private final int topK;
+    private final double halfLifeMinutes;
+    private final double viewWeight;
+    private final double bookingWeight;
+    private final long tickSeconds;
+    private final long flushSeconds;
+
+    private final ConcurrentHashMap<Long, LongAdder> views = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> bookings = new ConcurrentHashMap<>();
+    // Only read and written on the scheduler thread
+    private final Map<Long, Double> scores = new HashMap<>();
+    private volatile List<Entry> top = List.of();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "package-trending");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PackageTrendingTracker(JdbcTemplate jdbcTemplate,
+                                  PackageCatalog catalog,
+                                  @Value("${packages.trending.top-k:20}") int topK,
+                                  @Value("${packages.trending.half-life-minutes:120}") double halfLifeMinutes,
+                                  @Value("${packages.trending.view-weight:1}") double viewWeight,
+                                  @Value("${packages.trending.booking-weight:20}") double bookingWeight,
+                                  @Value("${packages.trending.tick-seconds:30}") long tickSeconds,
+                                  @Value("${packages.trending.flush-seconds:300}") long flushSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalog = catalog;
+        this.topK = topK;
+        this.halfLifeMinutes = halfLifeMinutes;
+        this.viewWeight = viewWeight;
+        this.bookingWeight = bookingWeight;
+        this.tickSeconds = tickSeconds;
+        this.flushSeconds = flushSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.execute(this::restore);
+        scheduler.scheduleAtFixedRate(this::safeTick, tickSeconds, tickSeconds, TimeUnit.SECONDS);
+        scheduler.scheduleAtFixedRate(this::safeFlush, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        if (scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+            // Scheduler thread is gone; checkpoint the latest counts from this one
+            safeTick();
+            safeFlush();
+        } else {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public void recordView(Long packageId) {
+        views.computeIfAbsent(packageId, id -> new LongAdder()).increment();
+    }
+
+    public void recordBooking(Long packageId) {
+        bookings.computeIfAbsent(packageId, id -> new LongAdder()).increment();
+    }
+
+    /** Highest-scoring packages that still exist in the catalog, best first. */
+    public List<TrendingPackageDto> trending(int limit) {
+        Optional<PackageCatalog.Snapshot> snapshot = catalog.snapshot();
+        if (snapshot.isEmpty()) {
+            return List.of();
+        }
+        List<TrendingPackageDto> result = new ArrayList<>(Math.min(limit, topK));
+        for (Entry entry : top) {
+            if (result.size() == limit) {
+                break;
+            }
+            snapshot.get().get(entry.packageId())
+                    .ifPresent(p -> result.add(new TrendingPackageDto(p, entry.score())));
+        }
+        return result;
+    }
+
+    /** Current scores of the top K packages, whether or not they are still in the catalog. */
+    public Map<Long, Double> topScores() {
+        Map<Long, Double> result = new HashMap<>();
+        for (Entry entry : top) {
+            result.put(entry.packageId(), entry.score());
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPackageChanged(PackageChangedEvent event) {
+        if (event.isDeleted()) {
+            forget(event.packageId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPackagesChanged(PackageBatchChangedEvent batch) {
+        batch.changes().stream()
+                .filter(PackageChangedEvent::isDeleted)
+                .forEach(event -> forget(event.packageId()));
+    }
+
+    private void forget(Long packageId) {
+        views.remove(packageId);
+        bookings.remove(packageId);
+        if (!scheduler.isShutdown()) {
+            scheduler.execute(() -> scores.remove(packageId));
+        }
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            log.warn("Trending update failed: {}", e.getMessage());
+        }
+    }
+
+    private void tick() {
+        double decay = Math.pow(0.5, tickSeconds / (halfLifeMinutes * 60));
+        scores.replaceAll((id, score) -> score * decay);
+        drain(views, viewWeight);
+        drain(bookings, bookingWeight);
+        scores.values().removeIf(score -> score < MIN_SCORE);
+        top = topK();
+    }
+
+    private void drain(Map<Long, LongAdder> counters, double weight) {
+        counters.forEach((id, adder) -> {
+            long count = adder.sumThenReset();
+            if (count > 0) {
+                scores.merge(id, count * weight, Double::sum);
+            }
+        });
+    }
+
+    // Bounded min-heap: O(n log K) over active packages
+    private List<Entry> topK() {
+        PriorityQueue<Entry> heap = new PriorityQueue<>(topK + 1, Comparator.comparingDouble(Entry::score));
+        scores.forEach((id, score) -> {
+            if (heap.size() < topK) {
+                heap.add(new Entry(id, score));
+            } else if (score > heap.peek().score()) {
+                heap.poll();
+                heap.add(new Entry(id, score));
+            }
+        });
+        List<Entry> ranked = new ArrayList<>(heap);
+        ranked.sort(Comparator.comparingDouble(Entry::score).reversed());
+        return List.copyOf(ranked);
+    }
+
+    private void safeFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not checkpoint trending scores: {}", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> rows.add(new Object[]{id, score, now}));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO package_trending_scores (package_id, score, updated_at) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE score = VALUES(score), updated_at = VALUES(updated_at)",
+                rows);
+        // Anything not rewritten above has decayed away or been deleted
+        int removed = jdbcTemplate.update("DELETE FROM package_trending_scores WHERE updated_at < ?", now);
+        log.debug("Checkpointed {} trending score(s), removed {}", rows.size(), removed);
+    }
+
+    private void restore() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.query("SELECT package_id, score, updated_at FROM package_trending_scores", rs -> {
+                // Decay for the time the service was down
+                double minutes = Duration.between(rs.getTimestamp("updated_at").toLocalDateTime(), now).toSeconds() / 60.0;
+                double score = rs.getDouble("score") * Math.pow(0.5, Math.max(minutes, 0) / halfLifeMinutes);
+                if (score >= MIN_SCORE) {
+                    scores.merge(rs.getLong("package_id"), score, Double::sum);
+                }
+            });
+            top = topK();
+            log.info("Restored {} trending score(s)", scores.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not restore trending scores: {}", e.getMessage());
+        }
+    }
+}
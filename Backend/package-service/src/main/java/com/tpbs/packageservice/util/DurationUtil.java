@@ -0,0 +1,39 @@
+package com.tpbs.packageservice.util;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class DurationUtil {
+
+    private static final Pattern AMOUNT = Pattern.compile("(\\d+)\\s*(day|night|week|month)?", Pattern.CASE_INSENSITIVE);
+
+    private DurationUtil() {
+    }
+
+    /**
+     * Parses free-text durations such as "5 days", "2 weeks" or "7" into a number of
+     * days. Returns null when no number is present or the day count does not fit in an
+     * int, so one malformed row cannot break callers such as the startup backfill.
+     */
+    public static Integer parseDays(String duration) {
+        if (duration == null) {
+            return null;
+        }
+        Matcher matcher = AMOUNT.matcher(duration);
+        if (!matcher.find()) {
+            return null;
+        }
+        String unit = matcher.group(2) == null ? "day" : matcher.group(2).toLowerCase(Locale.ROOT);
+        try {
+            int amount = Integer.parseInt(matcher.group(1));
+            return switch (unit) {
+                case "week" -> Math.multiplyExact(amount, 7);
+                case "month" -> Math.multiplyExact(amount, 30);
+                default -> amount;
+            };
+        } catch (NumberFormatException | ArithmeticException e) {
+            return null;
+        }
+    }
+}
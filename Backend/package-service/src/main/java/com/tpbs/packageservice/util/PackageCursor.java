@@ -0,0 +1,72 @@
+package com.tpbs.packageservice.util;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Position of the last row of a keyset page: the sort key value plus the package id
+ * as tie-breaker. Encoded as an opaque URL-safe token so clients never build one by hand.
+ */
+public record PackageCursor(Sort sort, String key, long packageId) {
+
+    public enum Sort {
+        ID, PRICE, TITLE;
+
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) {
+                return ID;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported sort '" + value + "'; expected id, price or title");
+            }
+        }
+    }
+
+    private static final char SEPARATOR = '|';
+
+    /** Cursor placed before the first row for the given sort. */
+    public static PackageCursor start(Sort sort) {
+        return switch (sort) {
+            case ID -> new PackageCursor(sort, "", 0L);
+            // Prices are non-negative and titles non-empty, so these sort before every row
+            case PRICE -> new PackageCursor(sort, "-1", 0L);
+            case TITLE -> new PackageCursor(sort, "", 0L);
+        };
+    }
+
+    public BigDecimal priceKey() {
+        return new BigDecimal(key);
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + packageId + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PackageCursor decode(String token, Sort expectedSort) {
+        PackageCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int second = raw.indexOf(SEPARATOR, first + 1);
+            Sort sort = Sort.valueOf(raw.substring(0, first));
+            long packageId = Long.parseLong(raw.substring(first + 1, second));
+            String key = raw.substring(second + 1);
+            if (sort == Sort.PRICE) {
+                new BigDecimal(key);
+            }
+            cursor = new PackageCursor(sort, key, packageId);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor", e);
+        }
+        // Well-formed but from another listing; checked outside the try so the message survives
+        if (cursor.sort() != expectedSort) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + cursor.sort().name().toLowerCase(Locale.ROOT));
+        }
+        return cursor;
+    }
+}
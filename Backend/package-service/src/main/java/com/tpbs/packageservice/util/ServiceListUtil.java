@@ -0,0 +1,47 @@
+package com.tpbs.packageservice.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+public final class ServiceListUtil {
+
+    private ServiceListUtil() {
+    }
+
+    /**
+     * Splits a comma-separated included-services string such as "Hotel, Flights" into
+     * trimmed display labels, skipping blanks.
+     */
+    public static List<String> parse(String includedServices) {
+        List<String> services = new ArrayList<>();
+        if (includedServices != null) {
+            for (String service : includedServices.split(",")) {
+                if (!service.isBlank()) {
+                    services.add(service.trim());
+                }
+            }
+        }
+        return services;
+    }
+
+    /**
+     * Normalized lookup key for a service: trimmed and lower-cased.
+     */
+    public static String key(String service) {
+        return service.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct normalized keys of a comma-separated services string, in order of appearance.
+     */
+    public static Set<String> keys(String includedServices) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String service : parse(includedServices)) {
+            keys.add(key(service));
+        }
+        return keys;
+    }
+}
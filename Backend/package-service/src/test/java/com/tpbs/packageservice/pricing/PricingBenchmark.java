@@ -0,0 +1,156 @@
+package com.tpbs.packageservice.pricing;
+
+import com.tpbs.packageservice.dto.PriceQuoteDto;
+import com.tpbs.packageservice.dto.TravelPackageDto;
+import com.tpbs.packageservice.model.PackageOccupancy;
+import com.tpbs.packageservice.model.PricingRule;
+import com.tpbs.packageservice.model.PricingRuleType;
+import com.tpbs.packageservice.model.TravelPackage;
+import com.tpbs.packageservice.repository.PackageOccupancyRepository;
+import com.tpbs.packageservice.repository.PricingRuleRepository;
+import com.tpbs.packageservice.repository.TravelPackageRepository;
+import com.tpbs.packageservice.service.TravelPackageService;
+import com.tpbs.packageservice.service.impl.PricingServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Quote latency against compiled price tables: {@link PricingEngine#slice} on its own and
+ * {@link PricingServiceImpl#quote} around it (package lookup, bounds checks, building the
+ * daily price list). Packages get a few seasonal windows, a global early-bird rule and an
+ * occupancy surcharge with some sold-out dates, so the tables are not flat.
+ *
+ * Not a unit test (surefire skips it). Run it with
+ * {@code mvn -pl package-service test-compile exec:exec -Dexec.classpathScope=test
+ * -Dexec.executable=java "-Dexec.args=-cp %classpath com.tpbs.packageservice.pricing.PricingBenchmark"}
+ * or from the IDE; JMH options such as {@code -p days=30} may follow the class name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"1000"})
+    public int packages;
+
+    // Length of the quoted departure window
+    @Param({"1", "30", "180"})
+    public int days;
+
+    private PricingEngine engine;
+    private PricingServiceImpl pricingService;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        today = LocalDate.now();
+        List<TravelPackage> rows = new ArrayList<>();
+        List<PricingRule> rules = new ArrayList<>();
+        List<PackageOccupancy> occupancy = new ArrayList<>();
+        Map<Long, TravelPackageDto> dtos = new HashMap<>();
+        rules.add(new PricingRule(null, null, PricingRuleType.EARLY_BIRD, null, null,
+                new BigDecimal("0.90"), 60, null));
+        for (long id = 1; id <= packages; id++) {
+            BigDecimal price = BigDecimal.valueOf(500 + id % 1500, 0).add(new BigDecimal("0.99"));
+            TravelPackage row = new TravelPackage();
+            row.setPackageId(id);
+            row.setPrice(price);
+            rows.add(row);
+            TravelPackageDto dto = new TravelPackageDto();
+            dto.setPackageId(id);
+            dto.setPrice(price);
+            dtos.put(id, dto);
+            for (int season = 0; season < 3; season++) {
+                LocalDate start = today.plusDays(id % 30 + season * 120L);
+                rules.add(new PricingRule(null, id, PricingRuleType.SEASONAL, start, start.plusDays(20),
+                        new BigDecimal("1.25"), null, null));
+            }
+            rules.add(new PricingRule(null, id, PricingRuleType.OCCUPANCY, null, null,
+                    new BigDecimal("1.15"), null, new BigDecimal("0.8")));
+            for (int sold = 0; sold < 10; sold++) {
+                occupancy.add(new PackageOccupancy(id, today.plusDays(id % 7 + sold * 9L), new BigDecimal("0.85")));
+            }
+        }
+
+        TravelPackageRepository packageRepository = mock(TravelPackageRepository.class);
+        PricingRuleRepository ruleRepository = mock(PricingRuleRepository.class);
+        PackageOccupancyRepository occupancyRepository = mock(PackageOccupancyRepository.class);
+        when(packageRepository.findAll()).thenReturn(rows);
+        when(ruleRepository.findAll()).thenReturn(rules);
+        when(occupancyRepository.findByDepartureDateGreaterThanEqual(any())).thenReturn(occupancy);
+        engine = new PricingEngine(packageRepository, ruleRepository, occupancyRepository, 365);
+        engine.build();
+
+        // Served from the catalog snapshot in the service, so a plain map lookup here
+        // rather than a mock whose bookkeeping would dominate the measurement
+        TravelPackageService packageService = (TravelPackageService) Proxy.newProxyInstance(
+                TravelPackageService.class.getClassLoader(), new Class<?>[]{TravelPackageService.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getPackageById")) {
+                        return dtos.get((Long) args[0]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        pricingService = new PricingServiceImpl(engine, ruleRepository, occupancyRepository, packageService);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public long[] slice() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        PricingEngine.PriceTable table = engine.table(random.nextLong(1, packages + 1L)).orElseThrow();
+        LocalDate from = today.plusDays(random.nextInt(365 - days + 1));
+        return PricingEngine.slice(table, from, from.plusDays(days - 1));
+    }
+
+    @Benchmark
+    public PriceQuoteDto quote() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate from = today.plusDays(random.nextInt(365 - days + 1));
+        return pricingService.quote(random.nextLong(1, packages + 1L), from, from.plusDays(days - 1));
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .include(PricingBenchmark.class.getSimpleName())
+                .parent(new CommandLineOptions(args))
+                .build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package com.tpbs.paymentservice.client;
+
+import com.tpbs.common.client.CoalescingNotifier;
+import com.tpbs.paymentservice.repository.PaymentRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tells booking-service the COMPLETED payment total of bookings whose payments
+ * changed, so its per-agent revenue statistics stay current without rescanning
+ * payments. Booking ids are collected after commit and, off the request thread, sent
+ * with their current absolute totals; booking-service applies only the difference to
+ * what it last saw, so a report that is retried while booking-service is unavailable
+ * (or repeated) is never counted twice.
+ */
+@Component
+public class BookingRevenueNotifier {
+
+    private static final long RETRY_INITIAL_MILLIS = 1_000;
+    private static final long RETRY_MAX_MILLIS = 60_000;
+
+    private final BookingServiceClient bookingServiceClient;
+    private final PaymentRepository paymentRepository;
+    private final CoalescingNotifier<Long> notifier;
+
+    public BookingRevenueNotifier(BookingServiceClient bookingServiceClient, PaymentRepository paymentRepository) {
+        this.bookingServiceClient = bookingServiceClient;
+        this.paymentRepository = paymentRepository;
+        this.notifier = new CoalescingNotifier<>("booking-revenue-notifier", this::send,
+                RETRY_INITIAL_MILLIS, RETRY_MAX_MILLIS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdown();
+    }
+
+    public void completedTotalChanged(Long bookingId, BigDecimal before, BigDecimal after) {
+        if (bookingId == null || before.compareTo(after) == 0) {
+            return;
+        }
+        notifier.changed(bookingId);
+    }
+
+    private void send(List<Long> bookingIds) {
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        for (Object[] row : paymentRepository.sumCompletedAmountByBookingIds(bookingIds)) {
+            totals.put((Long) row[0], (BigDecimal) row[1]);
+        }
+        for (Long bookingId : bookingIds) {
+            bookingServiceClient.recordRevenue(bookingId,
+                    Map.of("total", totals.getOrDefault(bookingId, BigDecimal.ZERO)));
+        }
+    }
+}
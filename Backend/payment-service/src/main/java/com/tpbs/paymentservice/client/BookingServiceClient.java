@@ -4,8 +4,11 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.math.BigDecimal;
 import java.util.Map;
 
 @FeignClient(name = "booking-service", url = "${feign.clients.booking-service.url:http://localhost:8083}")
@@ -18,4 +21,9 @@ public interface BookingServiceClient {
     ResponseEntity<Map<String, Object>> updateBookingPayment(
             @PathVariable("bookingId") Long bookingId,
             @PathVariable("paymentId") Long paymentId);
+    
+    @PostMapping(value = "/api/bookings/{bookingId}/revenue", headers = "X-Service-Call=internal")
+    ResponseEntity<Map<String, Object>> recordRevenue(
+            @PathVariable("bookingId") Long bookingId,
+            @RequestBody Map<String, BigDecimal> total);
 }
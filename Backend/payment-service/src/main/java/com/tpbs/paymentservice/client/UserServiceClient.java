@@ -4,6 +4,8 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.Map;
 
@@ -12,4 +14,12 @@ public interface UserServiceClient {
     
     @GetMapping("/api/users/{id}")
     ResponseEntity<Map<String, Object>> getUserById(@PathVariable("id") Long id);
+    
+    @GetMapping("/api/users/changes")
+    ResponseEntity<Map<String, Object>> getUserChanges(
+        @RequestParam("since") long since,
+        @RequestParam("epoch") String epoch,
+        @RequestParam("waitSeconds") int waitSeconds,
+        @RequestHeader("X-Service-Call") String serviceCall
+    );
 }
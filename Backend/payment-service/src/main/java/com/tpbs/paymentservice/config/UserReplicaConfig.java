@@ -0,0 +1,20 @@
+package com.tpbs.paymentservice.config;
+
+import com.tpbs.common.client.UserReplica;
+import com.tpbs.paymentservice.client.UserServiceClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserReplicaConfig {
+
+    @Bean
+    public UserReplica userReplica(UserServiceClient userServiceClient,
+                                   @Value("${user-replica.enabled:true}") boolean enabled,
+                                   @Value("${user-replica.wait-seconds:25}") int waitSeconds,
+                                   @Value("${user-replica.retry-delay-ms:5000}") long retryDelayMs) {
+        return new UserReplica((since, epoch, wait) -> userServiceClient.getUserChanges(since, epoch, wait, "internal"),
+                enabled, waitSeconds, retryDelayMs);
+    }
+}
@@ -45,6 +45,26 @@ public class PaymentController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/revenue-by-booking")
+    public ResponseEntity<Map<String, Object>> getCompletedRevenueByBooking() {
+        List<Map<String, Object>> revenue = paymentService.getCompletedRevenueByBooking();
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", revenue);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Batch lookup for service-to-service enrichment; unknown ids are simply absent from the result
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getPaymentsByIds(@RequestBody List<Long> ids) {
+        log.debug("Fetching {} payments by id", ids.size());
+        List<PaymentDto> payments = paymentService.getPaymentsByIds(ids);
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", payments);
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/user/{userId}")
     public ResponseEntity<Map<String, Object>> getPaymentsByUser(@PathVariable("userId") Long userId) {
         log.debug("Fetching payments for user: {}", userId);
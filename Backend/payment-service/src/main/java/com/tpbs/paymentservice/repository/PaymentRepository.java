@@ -3,8 +3,10 @@ package com.tpbs.paymentservice.repository;
 import com.tpbs.paymentservice.model.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,4 +20,13 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     @Query("SELECT p FROM Payment p WHERE p.userId = :userId AND p.status = :status")
     List<Payment> findByUserIdAndStatus(Long userId, String status);
+    
+    // [bookingId, sum of COMPLETED amounts] rows
+    @Query("SELECT p.bookingId, SUM(p.amount) FROM Payment p WHERE p.status = 'COMPLETED' GROUP BY p.bookingId")
+    List<Object[]> sumCompletedAmountByBooking();
+    
+    // Same, for the given bookings only; bookings without COMPLETED payments are absent
+    @Query("SELECT p.bookingId, SUM(p.amount) FROM Payment p WHERE p.status = 'COMPLETED' " +
+           "AND p.bookingId IN :bookingIds GROUP BY p.bookingId")
+    List<Object[]> sumCompletedAmountByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
 }
\ No newline at end of file
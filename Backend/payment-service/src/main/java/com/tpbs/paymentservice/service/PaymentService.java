@@ -3,6 +3,7 @@ package com.tpbs.paymentservice.service;
 import com.tpbs.paymentservice.dto.PaymentDto;
 import com.tpbs.paymentservice.dto.PaymentStatusDto;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -10,6 +11,7 @@ public interface PaymentService {
     
     List<PaymentDto> getAllPayments();
     PaymentDto getPaymentById(Long id);
+    List<PaymentDto> getPaymentsByIds(Collection<Long> ids);
     List<PaymentDto> getPaymentsByUserId(Long userId);
     List<PaymentDto> getPaymentsByBookingId(Long bookingId);
     PaymentDto createPayment(PaymentDto paymentDto);
@@ -21,5 +23,8 @@ public interface PaymentService {
     
     // Enhanced methods with cross-service data
     List<Map<String, Object>> getUserPaymentsWithBookingDetails(Long userId);
+    
+    // COMPLETED payment totals per booking, used to rebuild agent statistics
+    List<Map<String, Object>> getCompletedRevenueByBooking();
     Map<String, Object> getPaymentWithBookingAndUserDetails(Long paymentId);
 }
\ No newline at end of file
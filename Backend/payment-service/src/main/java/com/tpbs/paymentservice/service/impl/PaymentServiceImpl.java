@@ -1,6 +1,8 @@
 package com.tpbs.paymentservice.service.impl;
 
+import com.tpbs.paymentservice.client.BookingRevenueNotifier;
 import com.tpbs.paymentservice.client.BookingServiceClient;
+import com.tpbs.common.client.UserReplica;
 import com.tpbs.paymentservice.client.UserServiceClient;
 import com.tpbs.paymentservice.dto.PaymentDto;
 import com.tpbs.paymentservice.dto.PaymentStatusDto;
@@ -27,6 +29,8 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentRepository paymentRepository;
     private final BookingServiceClient bookingServiceClient;
     private final UserServiceClient userServiceClient;
+    private final UserReplica userReplica;
+    private final BookingRevenueNotifier revenueNotifier;
     
     @Override
     @Transactional(readOnly = true)
@@ -44,6 +48,14 @@ public class PaymentServiceImpl implements PaymentService {
         return toDto(payment);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaymentDto> getPaymentsByIds(Collection<Long> ids) {
+        return paymentRepository.findAllById(ids).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<PaymentDto> getPaymentsByUserId(Long userId) {
@@ -78,6 +90,7 @@ public class PaymentServiceImpl implements PaymentService {
     public PaymentDto updatePayment(Long id, PaymentDto paymentDto) {
         Payment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found with id: " + id));
+        BigDecimal completedBefore = completedAmount(payment);
         
         payment.setAmount(paymentDto.getAmount());
         payment.setPaymentMethod(paymentDto.getPaymentMethod());
@@ -87,6 +100,7 @@ public class PaymentServiceImpl implements PaymentService {
         payment.setDescription(paymentDto.getDescription());
         
         Payment updatedPayment = paymentRepository.save(payment);
+        revenueNotifier.completedTotalChanged(payment.getBookingId(), completedBefore, completedAmount(updatedPayment));
         return toDto(updatedPayment);
     }
     
@@ -94,6 +108,7 @@ public class PaymentServiceImpl implements PaymentService {
     public PaymentDto updatePaymentStatus(Long id, PaymentStatusDto statusDto) {
         Payment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found with id: " + id));
+        BigDecimal completedBefore = completedAmount(payment);
         
         payment.setStatus(statusDto.getStatus());
         
@@ -106,16 +121,17 @@ public class PaymentServiceImpl implements PaymentService {
         }
         
         Payment updatedPayment = paymentRepository.save(payment);
+        revenueNotifier.completedTotalChanged(payment.getBookingId(), completedBefore, completedAmount(updatedPayment));
         log.info("Payment status updated to {} for payment ID: {}", statusDto.getStatus(), id);
         return toDto(updatedPayment);
     }
     
     @Override
     public void deletePayment(Long id) {
-        if (!paymentRepository.existsById(id)) {
-            throw new RuntimeException("Payment not found with id: " + id);
-        }
-        paymentRepository.deleteById(id);
+        Payment payment = paymentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Payment not found with id: " + id));
+        paymentRepository.delete(payment);
+        revenueNotifier.completedTotalChanged(payment.getBookingId(), completedAmount(payment), BigDecimal.ZERO);
     }
     
     @Override
@@ -132,6 +148,7 @@ public class PaymentServiceImpl implements PaymentService {
             
             Payment processedPayment = paymentRepository.save(payment);
             log.info("Payment processed successfully with transaction ID: {}", transactionId);
+            revenueNotifier.completedTotalChanged(processedPayment.getBookingId(), BigDecimal.ZERO, completedAmount(processedPayment));
             
             // ✅ NEW: Link payment to booking after successful processing
             if (processedPayment.getBookingId() != null) {
@@ -157,8 +174,10 @@ public class PaymentServiceImpl implements PaymentService {
             throw new RuntimeException("Can only refund completed payments");
         }
         
+        BigDecimal completedBefore = completedAmount(payment);
         payment.setStatus("REFUNDED");
         Payment refundedPayment = paymentRepository.save(payment);
+        revenueNotifier.completedTotalChanged(payment.getBookingId(), completedBefore, BigDecimal.ZERO);
         return toDto(refundedPayment);
     }
     
@@ -213,18 +232,23 @@ public class PaymentServiceImpl implements PaymentService {
                 result.put("booking", getBookingFallback(payment.getBookingId()));
             }
             
-            // Fetch user details with fallback
-            try {
-                ResponseEntity<Map<String, Object>> userResponse = 
-                    userServiceClient.getUserById(payment.getUserId());
-                if (userResponse.getStatusCode().is2xxSuccessful() && userResponse.getBody() != null) {
-                    result.put("user", userResponse.getBody().get("data"));
-                } else {
+            // Fetch user details from the local replica first, then user-service, with fallback
+            Optional<Map<String, Object>> replicatedUser = userReplica.get(payment.getUserId());
+            if (replicatedUser.isPresent()) {
+                result.put("user", replicatedUser.get());
+            } else {
+                try {
+                    ResponseEntity<Map<String, Object>> userResponse = 
+                        userServiceClient.getUserById(payment.getUserId());
+                    if (userResponse.getStatusCode().is2xxSuccessful() && userResponse.getBody() != null) {
+                        result.put("user", userResponse.getBody().get("data"));
+                    } else {
+                        result.put("user", getUserFallback(payment.getUserId()));
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to fetch user details for userId: {}, using fallback", payment.getUserId());
                     result.put("user", getUserFallback(payment.getUserId()));
                 }
-            } catch (Exception e) {
-                log.warn("Failed to fetch user details for userId: {}, using fallback", payment.getUserId());
-                result.put("user", getUserFallback(payment.getUserId()));
             }
             
         } catch (Exception e) {
@@ -303,4 +327,20 @@ public class PaymentServiceImpl implements PaymentService {
             // Don't throw exception - payment creation should still succeed even if linking fails
         }
     }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCompletedRevenueByBooking() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object[] row : paymentRepository.sumCompletedAmountByBooking()) {
+            rows.add(Map.of("bookingId", row[0], "amount", row[1]));
+        }
+        return rows;
+    }
+    
+    private static BigDecimal completedAmount(Payment payment) {
+        return "COMPLETED".equals(payment.getStatus()) && payment.getAmount() != null
+                ? payment.getAmount()
+                : BigDecimal.ZERO;
+    }
 }
\ No newline at end of file
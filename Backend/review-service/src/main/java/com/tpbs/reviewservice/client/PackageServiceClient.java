@@ -4,12 +4,25 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "package-service", url = "${feign.clients.package-service.url:http://localhost:8082}")
 public interface PackageServiceClient {
     
-    @GetMapping("/api/packages/{id}")
+    // Marked internal so package-service does not count it as a customer view
+    @GetMapping(value = "/api/packages/{id}", headers = "X-Service-Call=internal")
     ResponseEntity<Map<String, Object>> getPackageById(@PathVariable("id") Long id);
-}
\ No newline at end of file
+    
+    // "data" maps package id (as a string key) to package; unknown ids are omitted
+    @PostMapping("/api/packages/batch")
+    ResponseEntity<Map<String, Object>> getPackagesByIds(@RequestBody List<Long> ids);
+    
+    // Rows of { packageId, averageRating, reviewCount } replacing the package summaries' review totals
+    @PutMapping(value = "/api/packages/summaries/reviews", headers = "X-Service-Call=internal")
+    ResponseEntity<Map<String, Object>> updateReviewStats(@RequestBody List<Map<String, Object>> stats);
+}
@@ -0,0 +1,83 @@
+package com.tpbs.reviewservice.client;
+
+import com.tpbs.common.client.CoalescingNotifier;
+import com.tpbs.reviewservice.repository.ReviewRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the review totals of package-service's package summaries current. Changed
+ * package ids are collected after commit and, off the request thread, recounted from
+ * the reviews table and sent as absolute totals, so repeated or reordered reports are
+ * harmless. Reports that fail while package-service is unavailable are retried with
+ * backoff, as is the full resend at startup.
+ */
+@Component
+public class PackageSummaryNotifier {
+
+    private static final int BATCH_SIZE = 500;
+    private static final long RETRY_INITIAL_MILLIS = 1_000;
+    private static final long RETRY_MAX_MILLIS = 60_000;
+
+    private final PackageServiceClient packageServiceClient;
+    private final ReviewRepository reviewRepository;
+    private final CoalescingNotifier<Long> notifier;
+
+    public PackageSummaryNotifier(PackageServiceClient packageServiceClient, ReviewRepository reviewRepository) {
+        this.packageServiceClient = packageServiceClient;
+        this.reviewRepository = reviewRepository;
+        this.notifier = new CoalescingNotifier<>("package-summary-notifier",
+                packageIds -> send(toRows(reviewRepository.summarizeByPackageIds(packageIds), packageIds)),
+                RETRY_INITIAL_MILLIS, RETRY_MAX_MILLIS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sendAll() {
+        notifier.runWithRetry(() -> send(toRows(reviewRepository.summarizeByPackage(), List.of())));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdown();
+    }
+
+    public void reviewsChanged(Long packageId) {
+        notifier.changed(packageId);
+    }
+
+    // Packages that no longer have reviews are reported with zero totals
+    private static List<Map<String, Object>> toRows(List<Object[]> summaries, List<Long> packageIds) {
+        Map<Long, Map<String, Object>> rows = new LinkedHashMap<>();
+        for (Long packageId : packageIds) {
+            rows.put(packageId, row(packageId, null, 0));
+        }
+        for (Object[] summary : summaries) {
+            Long packageId = (Long) summary[0];
+            rows.put(packageId, row(packageId, BigDecimal.valueOf((Double) summary[1]), (Long) summary[2]));
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    private static Map<String, Object> row(Long packageId, BigDecimal averageRating, long reviewCount) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("packageId", packageId);
+        row.put("averageRating", averageRating);
+        row.put("reviewCount", reviewCount);
+        return row;
+    }
+
+    private void send(List<Map<String, Object>> rows) {
+        for (int i = 0; i < rows.size(); i += BATCH_SIZE) {
+            packageServiceClient.updateReviewStats(rows.subList(i, Math.min(rows.size(), i + BATCH_SIZE)));
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
@@ -13,4 +14,11 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     @Query("select r from Review r where r.packageID = :packageId")
     List<Review> findAllByPackageId(@Param("packageId") Long packageId);
-}
\ No newline at end of file
+
+    // [packageId, average rating, review count] rows; packages without reviews are absent
+    @Query("select r.packageID, avg(r.rating), count(r) from Review r where r.packageID in :packageIds group by r.packageID")
+    List<Object[]> summarizeByPackageIds(@Param("packageIds") Collection<Long> packageIds);
+
+    @Query("select r.packageID, avg(r.rating), count(r) from Review r group by r.packageID")
+    List<Object[]> summarizeByPackage();
+}
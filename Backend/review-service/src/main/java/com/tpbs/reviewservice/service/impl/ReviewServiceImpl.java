@@ -2,6 +2,8 @@ package com.tpbs.reviewservice.service.impl;
 
 import com.tpbs.reviewservice.client.BookingServiceClient;
 import com.tpbs.reviewservice.client.PackageServiceClient;
+import com.tpbs.reviewservice.client.PackageSummaryNotifier;
+import com.tpbs.common.client.UserReplica;
 import com.tpbs.reviewservice.client.UserServiceClient;
 import com.tpbs.reviewservice.dto.ReviewDto;
 import com.tpbs.reviewservice.model.Review;
@@ -15,8 +17,13 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -25,8 +32,10 @@ import java.util.stream.Collectors;
 public class ReviewServiceImpl implements ReviewService {
     private final ReviewRepository reviewRepository;
     private final UserServiceClient userServiceClient;
+    private final UserReplica userReplica;
     private final PackageServiceClient packageServiceClient;
     private final BookingServiceClient bookingServiceClient;
+    private final PackageSummaryNotifier summaryNotifier;
 
     private ReviewDto toDto(Review review) {
         Instant ts = review.getTimestamp() == null ? null : review.getTimestamp().toInstant(ZoneOffset.UTC);
@@ -56,6 +65,10 @@ public class ReviewServiceImpl implements ReviewService {
 
     // Enhanced method to get user details via Feign client
     private Map<String, Object> getUserDetails(Long userId) {
+        Map<String, Object> replicated = userReplica.get(userId).orElse(null);
+        if (replicated != null) {
+            return replicated;
+        }
         try {
             ResponseEntity<Map<String, Object>> response = userServiceClient.getUserById(userId);
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
@@ -81,7 +94,29 @@ public class ReviewServiceImpl implements ReviewService {
         } catch (Exception e) {
             log.warn("Failed to fetch package details for packageId: {}, error: {}", packageId, e.getMessage());
         }
-        // Return fallback data to prevent null pointer exceptions
+        return unavailablePackage();
+    }
+    
+    // Details for all packages of a review list in one package-service call; missing ids are absent
+    private Map<Long, Map<String, Object>> getPackageDetails(Collection<Long> packageIds) {
+        Map<Long, Map<String, Object>> details = new HashMap<>();
+        if (packageIds.isEmpty()) {
+            return details;
+        }
+        try {
+            ResponseEntity<Map<String, Object>> response = packageServiceClient.getPackagesByIds(new ArrayList<>(packageIds));
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                Map<String, Map<String, Object>> byId = (Map<String, Map<String, Object>>) response.getBody().get("data");
+                byId.forEach((id, travelPackage) -> details.put(Long.valueOf(id), travelPackage));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to fetch package details for {} packages, error: {}", packageIds.size(), e.getMessage());
+        }
+        return details;
+    }
+    
+    // Return fallback data to prevent null pointer exceptions
+    private static Map<String, Object> unavailablePackage() {
         return Map.of(
             "title", "Package Information Unavailable",
             "destination", "Unknown",
@@ -106,6 +141,18 @@ public class ReviewServiceImpl implements ReviewService {
 
     // Enhanced toDto method with cross-service data
     private ReviewDto toDtoEnhanced(Review review) {
+        return toDtoEnhanced(review, getPackageDetails(review.getPackageID()));
+    }
+    
+    private List<ReviewDto> toDtosEnhanced(List<Review> reviews) {
+        Set<Long> packageIds = reviews.stream().map(Review::getPackageID).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Map<String, Object>> packages = getPackageDetails(packageIds);
+        return reviews.stream()
+                .map(review -> toDtoEnhanced(review, packages.getOrDefault(review.getPackageID(), unavailablePackage())))
+                .collect(Collectors.toList());
+    }
+    
+    private ReviewDto toDtoEnhanced(Review review, Map<String, Object> packageDetails) {
         ReviewDto dto = toDto(review);
         
         // Add user details
@@ -116,7 +163,6 @@ public class ReviewServiceImpl implements ReviewService {
         }
         
         // Add package details
-        Map<String, Object> packageDetails = getPackageDetails(review.getPackageID());
         if (packageDetails != null) {
             dto.setPackageName((String) packageDetails.get("name"));
             dto.setPackageDestination((String) packageDetails.get("destination"));
@@ -136,12 +182,12 @@ public class ReviewServiceImpl implements ReviewService {
         return reviewRepository.findById(id).map(this::toDto).orElse(null);
     }    @Override
     public List<ReviewDto> getReviewsByUserId(Long userId) {
-        return reviewRepository.findAllByUserId(userId).stream().map(this::toDtoEnhanced).collect(Collectors.toList());
+        return toDtosEnhanced(reviewRepository.findAllByUserId(userId));
     }
 
     @Override
     public List<ReviewDto> getReviewsByPackageId(Long packageId) {
-        return reviewRepository.findAllByPackageId(packageId).stream().map(this::toDtoEnhanced).collect(Collectors.toList());
+        return toDtosEnhanced(reviewRepository.findAllByPackageId(packageId));
     }
 
     @Override
@@ -157,16 +203,22 @@ public class ReviewServiceImpl implements ReviewService {
             review.setTimestamp(LocalDateTime.now());
         }
         Review saved = reviewRepository.save(review);
+        summaryNotifier.reviewsChanged(saved.getPackageID());
         return toDtoEnhanced(saved);
     }
 
     @Override
     public ReviewDto updateReview(Long id, ReviewDto dto) {
         return reviewRepository.findById(id).map(existing -> {
+            int oldRating = existing.getRating();
             if (dto.getRating() != 0) existing.setRating(dto.getRating());
             if (dto.getComment() != null) existing.setComment(dto.getComment());
             if (dto.getAgentReply() != null) existing.setAgentReply(dto.getAgentReply());
-            return toDto(reviewRepository.save(existing));
+            Review saved = reviewRepository.save(existing);
+            if (saved.getRating() != oldRating) {
+                summaryNotifier.reviewsChanged(saved.getPackageID());
+            }
+            return toDto(saved);
         }).orElse(null);
     }
 
@@ -180,6 +232,9 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     public void deleteReview(Long id) {
-        reviewRepository.deleteById(id);
+        reviewRepository.findById(id).ifPresent(review -> {
+            reviewRepository.delete(review);
+            summaryNotifier.reviewsChanged(review.getPackageID());
+        });
     }
 }
\ No newline at end of file
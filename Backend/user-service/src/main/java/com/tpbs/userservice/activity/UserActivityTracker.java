@@ -0,0 +1,141 @@
+package com.tpbs.userservice.activity;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind tracker for last-login and last-active timestamps. Events are coalesced
+ * per user in memory and written in JDBC batches on a fixed interval and at shutdown,
+ * so recording an event never touches the database on the request path.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserActivityTracker {
+
+    private static final String UPDATE_SQL =
+            "UPDATE users SET last_login = COALESCE(?, last_login), last_active = ? WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${users.activity.flush-interval-seconds:5}")
+    private long flushIntervalSeconds;
+
+    @Value("${users.activity.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Long, Activity> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "user-activity-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    public void recordLogin(Long userId) {
+        if (userId != null) {
+            LocalDateTime now = LocalDateTime.now();
+            pending.merge(userId, new Activity(now, now), Activity::merge);
+        }
+    }
+
+    public void recordActivity(Long userId) {
+        if (userId != null) {
+            pending.merge(userId, new Activity(null, LocalDateTime.now()), Activity::merge);
+        }
+    }
+
+    // Unflushed activity for a user, so reads reflect events still in the buffer
+    public Optional<Activity> pending(Long userId) {
+        return userId == null ? Optional.empty() : Optional.ofNullable(pending.get(userId));
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush user activity: {}", e.getMessage());
+        }
+    }
+
+    synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>();
+        List<Activity> activities = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        for (Long userId : pending.keySet()) {
+            // Removing per key lets events that arrive mid-flush start a fresh entry
+            Activity activity = pending.remove(userId);
+            if (activity != null) {
+                userIds.add(userId);
+                activities.add(activity);
+                batch.add(new Object[]{
+                    activity.lastLogin() != null ? Timestamp.valueOf(activity.lastLogin()) : null,
+                    Timestamp.valueOf(activity.lastActive()),
+                    userId
+                });
+            }
+        }
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, batch.subList(from, Math.min(from + batchSize, batch.size())));
+            } catch (RuntimeException e) {
+                requeue(userIds, activities, from);
+                throw e;
+            }
+        }
+        log.debug("Flushed activity for {} users", batch.size());
+    }
+
+    // Puts the unwritten part of a batch back, merged with events recorded since it was taken
+    private void requeue(List<Long> userIds, List<Activity> activities, int from) {
+        for (int i = from; i < userIds.size(); i++) {
+            pending.merge(userIds.get(i), activities.get(i), Activity::merge);
+        }
+        log.warn("Requeued activity for {} users after a failed flush", userIds.size() - from);
+    }
+
+    public record Activity(LocalDateTime lastLogin, LocalDateTime lastActive) {
+
+        private Activity merge(Activity other) {
+            return new Activity(latest(lastLogin, other.lastLogin), latest(lastActive, other.lastActive));
+        }
+
+        private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+            if (a == null) {
+                return b;
+            }
+            return b == null || a.isAfter(b) ? a : b;
+        }
+    }
+}
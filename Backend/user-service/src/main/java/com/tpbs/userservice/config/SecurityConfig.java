@@ -36,6 +36,11 @@ public class SecurityConfig {
                     request.getServletPath().matches("/api/users/\\d+") && 
                     "internal".equalsIgnoreCase(request.getHeader("X-Service-Call"))
                 ).permitAll()
+                .requestMatchers(request ->
+                    ("/api/users/changes".equals(request.getServletPath()) ||
+                     "/api/users/batch".equals(request.getServletPath())) &&
+                    "internal".equalsIgnoreCase(request.getHeader("X-Service-Call"))
+                ).permitAll()
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);        return http.build();
@@ -4,11 +4,15 @@ import com.tpbs.userservice.dto.AuthResponse;
 import com.tpbs.userservice.dto.LoginRequest;
 import com.tpbs.userservice.dto.RegisterRequest;
 import com.tpbs.userservice.service.UserService;
+import com.tpbs.userservice.throttle.LoginRateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @Slf4j
@@ -18,11 +22,22 @@ import jakarta.validation.Valid;
 public class AuthController {
 
     private final UserService userService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // Reject throttled callers before any DB lookup or password hashing
+        long retryAfter = loginRateLimiter.tryAcquire(loginRequest.getEmail(), clientIp(request));
+        if (retryAfter > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body(new ErrorResponse("Too many login attempts",
+                            "Please try again in " + retryAfter + " seconds"));
+        }
+        
         try {
             AuthResponse authResponse = userService.login(loginRequest);
+            loginRateLimiter.onSuccess(loginRequest.getEmail());
             return ResponseEntity.ok(authResponse);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -39,6 +54,19 @@ public class AuthController {
         }
     }
 
+    // The gateway appends the address it received the request from to X-Forwarded-For.
+    // Earlier entries come from the client and can be forged, so only the last one counts
+    private String clientIp(HttpServletRequest request) {
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            String lastHop = forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+            if (!lastHop.isEmpty()) {
+                return lastHop;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
     // Inner class for error responses
     @lombok.Data
     @lombok.AllArgsConstructor
@@ -1,14 +1,23 @@
 package com.tpbs.userservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tpbs.userservice.dto.UserDto;
+import com.tpbs.userservice.dto.UserPageDto;
+import com.tpbs.userservice.dto.UserSummaryDto;
+import com.tpbs.userservice.feed.UserChangeFeed;
 import com.tpbs.userservice.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
@@ -21,6 +30,10 @@ import java.util.HashMap;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final UserChangeFeed userChangeFeed;
+
+    private static final int MAX_BATCH_IDS = 1000;
 
     // Helper method to check if user has admin role
     private boolean isAdmin(HttpServletRequest request) {
@@ -61,12 +74,32 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
     }
 
+    // Basic user info shared with other services
+    private Map<String, Object> toUserData(UserDto user) {
+        Map<String, Object> userData = new HashMap<>();
+        userData.put("userId", user.getUserId());
+        userData.put("name", user.getName());
+        userData.put("email", user.getEmail());
+        userData.put("contactNumber", user.getContactNumber());
+        userData.put("role", user.getRole());
+        return userData;
+    }
+
     @GetMapping
-    public ResponseEntity<?> getAllUsers(HttpServletRequest request) {
+    public ResponseEntity<?> getAllUsers(@RequestParam(value = "cursor", required = false) Long cursor,
+                                         @RequestParam(value = "limit", required = false) Integer limit,
+                                         HttpServletRequest request) {
         if (!isAdmin(request)) {
             return forbidden();
         }
         
+        // Paged mode when the caller asks for it; plain list kept for existing clients
+        if (cursor != null || limit != null) {
+            UserPageDto page = userService.getUsersPage(null, cursor, limit);
+            log.info("Admin {} retrieved user page after cursor {}", request.getHeader("X-User-Email"), cursor);
+            return ResponseEntity.ok(page);
+        }
+        
         List<UserDto> users = userService.getAllUsers();
         log.info("Admin {} retrieved all users", request.getHeader("X-User-Email"));
         return ResponseEntity.ok(users);
@@ -93,15 +126,8 @@ public class UserController {
         if (userOpt.isPresent()) {
             UserDto user = userOpt.get();
             Map<String, Object> response = new HashMap<>();
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("userId", user.getUserId());
-            userData.put("name", user.getName());
-            userData.put("email", user.getEmail());
-            userData.put("contactNumber", user.getContactNumber());
-            userData.put("role", user.getRole());
-            
             response.put("success", true);
-            response.put("data", userData);
+            response.put("data", toUserData(user));
             
             log.info("✅ Successfully retrieved user - ID: {}, Name: {}, Role: {}, ServiceCall: {}", 
                 id, user.getName(), userRole, serviceCall);
@@ -114,6 +140,29 @@ public class UserController {
         }
     }
 
+    // Batch lookup for service-to-service enrichment; unknown ids are simply absent from the result
+    @PostMapping("/batch")
+    public ResponseEntity<?> getUsersByIds(@RequestBody List<Long> ids, HttpServletRequest request) {
+        if (!isAdminOrAgent(request)) {
+            return forbidden();
+        }
+        if (ids.size() > MAX_BATCH_IDS) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", "At most " + MAX_BATCH_IDS + " ids per batch");
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        List<Map<String, Object>> users = userService.getUsersByIds(ids).stream()
+                .map(this::toUserData)
+                .toList();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", users);
+        log.debug("Batch lookup returned {} of {} requested users", users.size(), ids.size());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/email/{email}")
     public ResponseEntity<?> getUserByEmail(@PathVariable String email, HttpServletRequest request) {
         if (!isAdmin(request)) {
@@ -126,17 +175,89 @@ public class UserController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Prefix search over names and emails, served from the in-memory index
+    @GetMapping("/search")
+    public ResponseEntity<?> searchUsers(@RequestParam("q") String query,
+                                         @RequestParam(value = "limit", required = false) Integer limit,
+                                         HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return forbidden();
+        }
+        
+        List<UserSummaryDto> users = userService.searchUsers(query, limit);
+        log.debug("Admin {} searched users for '{}' ({} matches)", request.getHeader("X-User-Email"), query, users.size());
+        return ResponseEntity.ok(users);
+    }
+
     @GetMapping("/role/{role}")
-    public ResponseEntity<?> getUsersByRole(@PathVariable String role, HttpServletRequest request) {
+    public ResponseEntity<?> getUsersByRole(@PathVariable String role,
+                                            @RequestParam(value = "cursor", required = false) Long cursor,
+                                            @RequestParam(value = "limit", required = false) Integer limit,
+                                            HttpServletRequest request) {
         if (!isAdmin(request)) {
             return forbidden();
         }
         
+        if (cursor != null || limit != null) {
+            UserPageDto page = userService.getUsersPage(role, cursor, limit);
+            log.info("Admin {} retrieved page of users with role: {}", request.getHeader("X-User-Email"), role);
+            return ResponseEntity.ok(page);
+        }
+        
         List<UserDto> users = userService.getUsersByRole(role);
         log.info("Admin {} retrieved users with role: {}", request.getHeader("X-User-Email"), role);
         return ResponseEntity.ok(users);
     }
 
+    // Streams every user as newline-delimited JSON; memory stays flat regardless of table size
+    @GetMapping("/export")
+    public ResponseEntity<?> exportUsers(@RequestParam(value = "role", required = false) String role,
+                                         HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return forbidden();
+        }
+        
+        log.info("Admin {} started user export (role: {})", request.getHeader("X-User-Email"), role);
+        StreamingResponseBody body = out -> userService.streamUsers(role, user -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    // Versioned change feed used by other services to maintain local user replicas.
+    // Blocks for up to waitSeconds when nothing newer than "since" exists yet.
+    @GetMapping("/changes")
+    public DeferredResult<ResponseEntity<?>> getUserChanges(
+            @RequestParam(value = "since", defaultValue = "0") long since,
+            @RequestParam(value = "epoch", required = false) String epoch,
+            @RequestParam(value = "waitSeconds", defaultValue = "0") int waitSeconds,
+            HttpServletRequest request) {
+        long timeoutMs = Math.max(1, Math.min(waitSeconds, 30)) * 1000L;
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(timeoutMs);
+        if (!isAdminOrAgent(request)) {
+            result.setResult(forbidden());
+            return result;
+        }
+        
+        UserChangeFeed.Waiter waiter = userChangeFeed.poll(since, epoch,
+                batch -> result.setResult(ResponseEntity.ok(Map.of("success", true, "data", batch))));
+        if (waitSeconds <= 0 && !result.hasResult()) {
+            userChangeFeed.cancel(waiter);
+            result.setResult(ResponseEntity.ok(Map.of("success", true, "data", userChangeFeed.idle(since))));
+        }
+        result.onTimeout(() -> result.setResult(
+                ResponseEntity.ok(Map.of("success", true, "data", userChangeFeed.idle(since)))));
+        result.onCompletion(() -> userChangeFeed.cancel(waiter));
+        return result;
+    }
+
     @PostMapping
     public ResponseEntity<?> createUser(@Valid @RequestBody UserDto userDto, HttpServletRequest request) {
         if (!isAdmin(request)) {
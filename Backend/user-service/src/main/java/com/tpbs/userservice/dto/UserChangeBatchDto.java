@@ -0,0 +1,24 @@
+package com.tpbs.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeBatchDto {
+    
+    // Changes when the feed restarts; clients must discard their replica and apply the snapshot
+    private String epoch;
+    
+    // Highest version included; pass back as "since" on the next poll
+    private long version;
+    
+    // True when "changes" holds every user rather than a delta
+    private boolean snapshot;
+    
+    private List<UserChangeDto> changes;
+}
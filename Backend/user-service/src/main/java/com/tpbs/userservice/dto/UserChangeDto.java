@@ -0,0 +1,20 @@
+package com.tpbs.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Compact user projection published on the change feed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeDto {
+    
+    private long version;
+    private Long userId;
+    private String name;
+    private String email;
+    private String contactNumber;
+    private String role;
+    private boolean deleted;
+}
@@ -33,4 +33,6 @@ public class UserDto {
     
     private String approval;
     private LocalDateTime registrationDate;
+    private LocalDateTime lastLogin;
+    private LocalDateTime lastActive;
 } 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.tpbs.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageDto {
+    
+    private List<UserDto> users;
+    
+    // userId of the last row in this page; pass back as "cursor" to fetch the next page
+    private Long nextCursor;
+    
+    private boolean hasMore;
+    private int limit;
+}
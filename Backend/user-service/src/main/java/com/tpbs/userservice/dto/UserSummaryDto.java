@@ -0,0 +1,17 @@
+package com.tpbs.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDto {
+    
+    private Long userId;
+    private String name;
+    private String email;
+    private String role;
+    private String contactNumber;
+}
@@ -0,0 +1,240 @@
+package com.tpbs.userservice.feed;
+
+import com.tpbs.userservice.dto.UserChangeBatchDto;
+import com.tpbs.userservice.dto.UserChangeDto;
+import com.tpbs.userservice.model.User;
+import com.tpbs.userservice.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Monotonically versioned log of user projection changes. Other services poll it
+ * (optionally long-polling) to keep a local replica of the fields they enrich with.
+ * Only the most recent changes are retained; a client that falls behind, or that
+ * polls across a restart (different epoch), receives a full snapshot instead.
+ * Waiters are completed from the committing thread, but snapshots for waiters that
+ * fell behind are read on a separate thread (one read shared by all of them), so a
+ * lagging client never puts a full user table scan on the write path.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserChangeFeed {
+
+    // Marks a poll whose range has been evicted from the log
+    private static final UserChangeBatchDto SNAPSHOT_REQUIRED = new UserChangeBatchDto(null, 0, true, List.of());
+
+    private final UserRepository userRepository;
+
+    @Value("${users.change-feed.retention:10000}")
+    private int retention;
+
+    @Value("${users.change-feed.max-batch:1000}")
+    private int maxBatch;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Deque<UserChangeDto> changes = new ArrayDeque<>();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final List<Consumer<UserChangeDto>> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService snapshots = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "user-feed-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Starts above 0 so a client holding a snapshot taken before the first write
+    // (version 1) long-polls instead of being sent another snapshot right away
+    private long version = 1;
+
+    public void publish(User user) {
+        afterCommit(new UserChangeDto(0L, user.getUserId(), user.getName(), user.getEmail(),
+                user.getContactNumber(), user.getRole(), false));
+    }
+
+    public void publishDeleted(Long userId) {
+        afterCommit(new UserChangeDto(0L, userId, null, null, null, null, true));
+    }
+
+    // In-process subscribers (e.g. search index) receive each committed change in order
+    public void addListener(Consumer<UserChangeDto> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Delivers the next batch after {@code since} to the consumer, either immediately or
+     * as soon as a change is published. The returned waiter must be cancelled if the
+     * caller gives up (e.g. long-poll timeout).
+     */
+    public Waiter poll(long since, String clientEpoch, Consumer<UserChangeBatchDto> consumer) {
+        Waiter waiter = new Waiter(since, consumer);
+        if (since <= 0 || !epoch.equals(clientEpoch)) {
+            consumer.accept(snapshot());
+            return waiter;
+        }
+        // Register before checking so a change published in between is not missed
+        waiters.add(waiter);
+        UserChangeBatchDto batch = changesSince(since);
+        if (batch != null && waiters.remove(waiter)) {
+            consumer.accept(batch);
+        }
+        return waiter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshots.shutdownNow();
+    }
+
+    public void cancel(Waiter waiter) {
+        waiters.remove(waiter);
+    }
+
+    public UserChangeBatchDto idle(long since) {
+        return new UserChangeBatchDto(epoch, since, false, Collections.emptyList());
+    }
+
+    private void afterCommit(UserChangeDto change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(change);
+                }
+            });
+        } else {
+            append(change);
+        }
+    }
+
+    private void append(UserChangeDto change) {
+        synchronized (this) {
+            change.setVersion(++version);
+            changes.addLast(change);
+            while (changes.size() > retention) {
+                changes.removeFirst();
+            }
+        }
+        log.debug("Published user change v{} for user {}", change.getVersion(), change.getUserId());
+        for (Consumer<UserChangeDto> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (Exception e) {
+                log.error("User change listener failed for user {}: {}", change.getUserId(), e.getMessage());
+            }
+        }
+        notifyWaiters();
+    }
+
+    private void notifyWaiters() {
+        List<Waiter> pending = new ArrayList<>();
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            pending.add(waiter);
+        }
+        List<Waiter> lagging = new ArrayList<>();
+        for (Waiter w : pending) {
+            UserChangeBatchDto batch = logSince(w.since);
+            if (batch == SNAPSHOT_REQUIRED) {
+                lagging.add(w);
+            } else if (batch != null) {
+                w.consumer.accept(batch);
+            } else {
+                waiters.add(w);
+            }
+        }
+        if (!lagging.isEmpty()) {
+            sendSnapshot(lagging);
+        }
+    }
+
+    private void sendSnapshot(List<Waiter> lagging) {
+        try {
+            snapshots.execute(() -> {
+                UserChangeBatchDto snapshot;
+                try {
+                    snapshot = snapshot();
+                } catch (RuntimeException e) {
+                    // Back in line; the next change or their long-poll timeout completes them
+                    log.warn("Could not read user snapshot for {} lagging poller(s): {}", lagging.size(), e.getMessage());
+                    waiters.addAll(lagging);
+                    return;
+                }
+                lagging.forEach(w -> w.consumer.accept(snapshot));
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the pollers time out
+        }
+    }
+
+    // Returns null when nothing is newer than since
+    private UserChangeBatchDto changesSince(long since) {
+        UserChangeBatchDto batch = logSince(since);
+        return batch == SNAPSHOT_REQUIRED ? snapshot() : batch;
+    }
+
+    // Like changesSince, but SNAPSHOT_REQUIRED instead of reading the snapshot
+    private UserChangeBatchDto logSince(long since) {
+        synchronized (this) {
+            if (since >= version) {
+                return null;
+            }
+            UserChangeDto oldest = changes.peekFirst();
+            if (oldest != null && oldest.getVersion() <= since + 1) {
+                List<UserChangeDto> batch = new ArrayList<>();
+                for (UserChangeDto change : changes) {
+                    if (change.getVersion() > since) {
+                        batch.add(change);
+                        if (batch.size() >= maxBatch) {
+                            break;
+                        }
+                    }
+                }
+                return new UserChangeBatchDto(epoch, batch.get(batch.size() - 1).getVersion(), false, batch);
+            }
+        }
+        // The requested range has been evicted from the log
+        return SNAPSHOT_REQUIRED;
+    }
+
+    private UserChangeBatchDto snapshot() {
+        long snapshotVersion;
+        synchronized (this) {
+            snapshotVersion = version;
+        }
+        // Changes committed while reading are replayed on the next poll; upserts are idempotent
+        List<UserChangeDto> users = userRepository.findAll().stream()
+                .map(user -> new UserChangeDto(snapshotVersion, user.getUserId(), user.getName(), user.getEmail(),
+                        user.getContactNumber(), user.getRole(), false))
+                .collect(Collectors.toList());
+        log.debug("Serving user snapshot of {} users at v{}", users.size(), snapshotVersion);
+        return new UserChangeBatchDto(epoch, snapshotVersion, true, users);
+    }
+
+    public static final class Waiter {
+        private final long since;
+        private final Consumer<UserChangeBatchDto> consumer;
+
+        private Waiter(long since, Consumer<UserChangeBatchDto> consumer) {
+            this.since = since;
+            this.consumer = consumer;
+        }
+    }
+}
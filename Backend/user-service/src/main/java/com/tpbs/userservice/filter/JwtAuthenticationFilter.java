@@ -1,9 +1,11 @@
 package com.tpbs.userservice.filter;
 
+import com.tpbs.userservice.activity.UserActivityTracker;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -16,8 +18,11 @@ import java.util.Collections;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private final UserActivityTracker activityTracker;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -48,6 +53,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             SecurityContextHolder.getContext().setAuthentication(authToken);
             
             log.debug("User {} authenticated with role: {}", userEmail, userRole);
+            
+            try {
+                activityTracker.recordActivity(Long.parseLong(userId));
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring activity for non-numeric user id header: {}", userId);
+            }
         }
         
         filterChain.doFilter(request, response);
@@ -60,6 +60,13 @@ public class User implements UserDetails {
     @Column(name = "enabled")
     private boolean enabled = true;
 
+    // Written only by UserActivityTracker's batched JDBC updates, never by entity saves
+    @Column(name = "last_login", insertable = false, updatable = false)
+    private LocalDateTime lastLogin;
+
+    @Column(name = "last_active", insertable = false, updatable = false)
+    private LocalDateTime lastActive;
+
     // Custom constructor for setting registration date
     public User(String name, String email, String password, String role, String contactNumber) {
         this.name = name;
@@ -1,13 +1,18 @@
 package com.tpbs.userservice.repository;
 
 import com.tpbs.userservice.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -28,4 +33,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT COUNT(u) FROM User u WHERE u.approval = 'pending'")
     long countPendingApprovals();
+    
+    // Keyset pagination: rows strictly after the cursor, ordered by primary key
+    List<User> findByUserIdGreaterThanOrderByUserIdAsc(Long userId, Pageable pageable);
+    
+    List<User> findByRoleAndUserIdGreaterThanOrderByUserIdAsc(String role, Long userId, Pageable pageable);
+    
+    // Streaming export: rows are pulled from a server-side cursor in fetch-size chunks
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u FROM User u ORDER BY u.userId")
+    Stream<User> streamAll();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u FROM User u WHERE u.role = :role ORDER BY u.userId")
+    Stream<User> streamByRole(@Param("role") String role);
 } 
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.tpbs.userservice.search;
+
+import com.tpbs.userservice.dto.UserChangeDto;
+import com.tpbs.userservice.dto.UserSummaryDto;
+import com.tpbs.userservice.feed.UserChangeFeed;
+import com.tpbs.userservice.model.User;
+import com.tpbs.userservice.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory prefix index over normalized user names and emails. Terms live in a
+ * sorted map, so a prefix query is a range scan rather than a LIKE over the users
+ * table. Built at startup and kept current from the user change feed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserSearchIndex {
+
+    // Upper bound on distinct users considered per query before ranking
+    private static final int CANDIDATE_FACTOR = 8;
+
+    private final UserRepository userRepository;
+    private final UserChangeFeed userChangeFeed;
+
+    private final NavigableMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void subscribe() {
+        userChangeFeed.addListener(this::apply);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        for (User user : userRepository.findAll()) {
+            index(new UserSummaryDto(user.getUserId(), user.getName(), user.getEmail(),
+                    user.getRole(), user.getContactNumber()));
+        }
+        log.info("User search index built with {} users and {} terms in {} ms",
+                entries.size(), terms.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public List<UserSummaryDto> search(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Set<Long> candidates = new LinkedHashSet<>();
+        int maxCandidates = limit * CANDIDATE_FACTOR;
+        for (Set<Long> ids : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            candidates.addAll(ids);
+            if (candidates.size() >= maxCandidates) {
+                break;
+            }
+        }
+
+        List<Entry> matches = new ArrayList<>(candidates.size());
+        for (Long id : candidates) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(Comparator.comparingInt((Entry e) -> -e.score(prefix)).thenComparing(e -> e.name));
+        return matches.stream().limit(limit).map(e -> e.user).toList();
+    }
+
+    private void apply(UserChangeDto change) {
+        if (change.isDeleted()) {
+            remove(change.getUserId());
+        } else {
+            index(new UserSummaryDto(change.getUserId(), change.getName(), change.getEmail(),
+                    change.getRole(), change.getContactNumber()));
+        }
+    }
+
+    private synchronized void index(UserSummaryDto user) {
+        remove(user.getUserId());
+        Entry entry = new Entry(user);
+        entries.put(user.getUserId(), entry);
+        for (String term : entry.terms) {
+            terms.computeIfAbsent(term, t -> new ConcurrentSkipListSet<>()).add(user.getUserId());
+        }
+    }
+
+    private synchronized void remove(Long userId) {
+        Entry existing = entries.remove(userId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms) {
+            terms.computeIfPresent(term, (t, ids) -> {
+                ids.remove(userId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    private static final class Entry {
+        private final UserSummaryDto user;
+        private final String name;
+        private final String email;
+        private final Set<String> terms = new LinkedHashSet<>();
+
+        private Entry(UserSummaryDto user) {
+            this.user = user;
+            this.name = normalize(user.getName());
+            this.email = normalize(user.getEmail());
+            // Whole name, each name word, whole email, and the email's local/domain parts
+            addTerm(name);
+            for (String word : name.split(" ")) {
+                addTerm(word);
+            }
+            addTerm(email);
+            int at = email.indexOf('@');
+            if (at > 0) {
+                for (String part : email.substring(0, at).split("[._+-]")) {
+                    addTerm(part);
+                }
+                addTerm(email.substring(at + 1));
+            }
+        }
+
+        private void addTerm(String term) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+
+        // Exact match, then name/email prefix, then word prefix
+        private int score(String prefix) {
+            if (name.equals(prefix) || email.equals(prefix)) {
+                return 3;
+            }
+            if (name.startsWith(prefix) || email.startsWith(prefix)) {
+                return 2;
+            }
+            return 1;
+        }
+    }
+}
@@ -4,8 +4,10 @@ import com.tpbs.userservice.dto.*;
 import com.tpbs.userservice.model.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserService extends UserDetailsService {
     
@@ -15,8 +17,12 @@ public interface UserService extends UserDetailsService {
     
     // User CRUD operations
     List<UserDto> getAllUsers();
+    List<UserDto> getUsersByIds(Collection<Long> userIds);
+    UserPageDto getUsersPage(String role, Long cursor, Integer limit);
+    void streamUsers(String role, Consumer<UserDto> consumer);
     Optional<UserDto> getUserById(Long userId);
     Optional<UserDto> getUserByEmail(String email);
+    List<UserSummaryDto> searchUsers(String query, Integer limit);
     UserDto createUser(UserDto userDto);
     UserDto updateUser(Long userId, UserDto userDto);
     void deleteUser(Long userId);
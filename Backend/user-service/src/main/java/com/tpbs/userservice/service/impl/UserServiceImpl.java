@@ -1,12 +1,18 @@
 package com.tpbs.userservice.service.impl;
 
+import com.tpbs.userservice.activity.UserActivityTracker;
 import com.tpbs.userservice.dto.*;
+import com.tpbs.userservice.feed.UserChangeFeed;
 import com.tpbs.userservice.model.User;
 import com.tpbs.userservice.repository.UserRepository;
+import com.tpbs.userservice.search.UserSearchIndex;
 import com.tpbs.userservice.service.UserService;
 import com.tpbs.userservice.util.JwtUtil;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -15,9 +21,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -28,6 +37,19 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final EntityManager entityManager;
+    private final UserChangeFeed userChangeFeed;
+    private final UserActivityTracker activityTracker;
+    private final UserSearchIndex userSearchIndex;
+
+    @Value("${users.pagination.default-limit:50}")
+    private int defaultPageLimit;
+
+    @Value("${users.pagination.max-limit:500}")
+    private int maxPageLimit;
+
+    @Value("${users.search.max-results:50}")
+    private int maxSearchResults;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -54,6 +76,7 @@ public class UserServiceImpl implements UserService {
             }
 
             String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getUserId(), user.getName());
+            activityTracker.recordLogin(user.getUserId());
             UserDto userDto = convertToDto(user);
 
             log.info("Successful login for user: {} with role: {}", user.getEmail(), user.getRole());
@@ -91,6 +114,7 @@ public class UserServiceImpl implements UserService {
             }
 
             user = userRepository.save(user);
+            userChangeFeed.publish(user);
             UserDto userDto = convertToDto(user);
 
             String token = null;
@@ -119,6 +143,47 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<UserDto> getUsersByIds(Collection<Long> userIds) {
+        return userRepository.findAllById(userIds).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageDto getUsersPage(String role, Long cursor, Integer limit) {
+        int pageLimit = limit == null || limit <= 0 ? defaultPageLimit : Math.min(limit, maxPageLimit);
+        long afterId = cursor == null ? 0L : cursor;
+        
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        PageRequest window = PageRequest.of(0, pageLimit + 1);
+        List<User> rows = role == null
+                ? userRepository.findByUserIdGreaterThanOrderByUserIdAsc(afterId, window)
+                : userRepository.findByRoleAndUserIdGreaterThanOrderByUserIdAsc(role, afterId, window);
+        
+        boolean hasMore = rows.size() > pageLimit;
+        List<UserDto> users = rows.stream()
+                .limit(pageLimit)
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        Long nextCursor = users.isEmpty() ? null : users.get(users.size() - 1).getUserId();
+        
+        return new UserPageDto(users, hasMore ? nextCursor : null, hasMore, pageLimit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamUsers(String role, Consumer<UserDto> consumer) {
+        try (Stream<User> users = role == null ? userRepository.streamAll() : userRepository.streamByRole(role)) {
+            users.forEach(user -> {
+                consumer.accept(convertToDto(user));
+                // Detach so the persistence context does not grow with the table
+                entityManager.detach(user);
+            });
+        }
+    }
+
     @Override
     public Optional<UserDto> getUserById(Long userId) {
         return userRepository.findById(userId)
@@ -131,6 +196,12 @@ public class UserServiceImpl implements UserService {
                 .map(this::convertToDto);
     }
 
+    @Override
+    public List<UserSummaryDto> searchUsers(String query, Integer limit) {
+        int resultLimit = limit == null || limit <= 0 ? 10 : Math.min(limit, maxSearchResults);
+        return userSearchIndex.search(query, resultLimit);
+    }
+
     @Override
     public UserDto createUser(UserDto userDto) {
         if (existsByEmail(userDto.getEmail())) {
@@ -142,6 +213,7 @@ public class UserServiceImpl implements UserService {
         user.setRegistrationDate(LocalDateTime.now());
         
         user = userRepository.save(user);
+        userChangeFeed.publish(user);
         return convertToDto(user);
     }
 
@@ -164,6 +236,7 @@ public class UserServiceImpl implements UserService {
         }
 
         existingUser = userRepository.save(existingUser);
+        userChangeFeed.publish(existingUser);
         return convertToDto(existingUser);
     }
 
@@ -173,6 +246,7 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException("User not found");
         }
         userRepository.deleteById(userId);
+        userChangeFeed.publishDeleted(userId);
     }
 
     @Override
@@ -226,6 +300,8 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto convertToDto(User user) {
+        // Overlay activity still buffered in the tracker over the last flushed values
+        UserActivityTracker.Activity buffered = activityTracker.pending(user.getUserId()).orElse(null);
         return new UserDto(
                 user.getUserId(),
                 user.getName(),
@@ -233,7 +309,9 @@ public class UserServiceImpl implements UserService {
                 user.getRole(),
                 user.getContactNumber(),
                 user.getApproval(),
-                user.getRegistrationDate()
+                user.getRegistrationDate(),
+                buffered != null && buffered.lastLogin() != null ? buffered.lastLogin() : user.getLastLogin(),
+                buffered != null ? buffered.lastActive() : user.getLastActive()
         );
     }
 
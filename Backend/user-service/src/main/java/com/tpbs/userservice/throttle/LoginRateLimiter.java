@@ -0,0 +1,216 @@
+package com.tpbs.userservice.throttle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory sliding-window limiter for login attempts, keyed separately by email and
+ * by source IP. Each key keeps a small ring of time buckets covering the window;
+ * exceeding the threshold blocks the key for an exponentially growing backoff. A key
+ * loses one strike for every window (or backoff period, if longer) it goes without
+ * being blocked again, so an occasional lockout does not escalate the next one hours
+ * later. Checks run before any database lookup or BCrypt work.
+ */
+@Slf4j
+@Component
+public class LoginRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final boolean enabled;
+    private final int emailMaxAttempts;
+    private final int ipMaxAttempts;
+    private final long bucketMillis;
+    private final int buckets;
+    private final long windowMillis;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int maxTrackedKeys;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    private final AtomicLong attemptsSinceSweep = new AtomicLong();
+
+    private final Counter blockedByEmail;
+    private final Counter blockedByIp;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.login-throttle.enabled:true}") boolean enabled,
+                            @Value("${auth.login-throttle.email-max-attempts:10}") int emailMaxAttempts,
+                            @Value("${auth.login-throttle.ip-max-attempts:100}") int ipMaxAttempts,
+                            @Value("${auth.login-throttle.window-seconds:60}") int windowSeconds,
+                            @Value("${auth.login-throttle.buckets:12}") int buckets,
+                            @Value("${auth.login-throttle.base-backoff-seconds:30}") int baseBackoffSeconds,
+                            @Value("${auth.login-throttle.max-backoff-seconds:3600}") int maxBackoffSeconds,
+                            @Value("${auth.login-throttle.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.enabled = enabled;
+        this.emailMaxAttempts = emailMaxAttempts;
+        this.ipMaxAttempts = ipMaxAttempts;
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1L, windowSeconds * 1000L / buckets);
+        this.windowMillis = bucketMillis * buckets;
+        this.baseBackoffMillis = baseBackoffSeconds * 1000L;
+        this.maxBackoffMillis = maxBackoffSeconds * 1000L;
+        this.maxTrackedKeys = maxTrackedKeys;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.blockedByEmail = Counter.builder("auth.login.blocked")
+                .description("Login attempts rejected by the rate limiter")
+                .tag("key", "email")
+                .register(meterRegistry);
+        this.blockedByIp = Counter.builder("auth.login.blocked")
+                .description("Login attempts rejected by the rate limiter")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        meterRegistry.gauge("auth.login.throttle.tracked-keys", windows, Map::size);
+    }
+
+    /**
+     * Records an attempt for both keys and returns 0 if it may proceed, otherwise the
+     * number of seconds the caller should wait before retrying.
+     */
+    public long tryAcquire(String email, String ip) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        sweepIfNeeded(now);
+
+        long emailWait = acquire("e:" + normalize(email), emailMaxAttempts, now);
+        if (emailWait > 0) {
+            blockedByEmail.increment();
+            log.warn("Login throttled for email {} ({}s remaining)", email, emailWait);
+            return emailWait;
+        }
+        long ipWait = acquire("i:" + ip, ipMaxAttempts, now);
+        if (ipWait > 0) {
+            blockedByIp.increment();
+            log.warn("Login throttled for source {} ({}s remaining)", ip, ipWait);
+            return ipWait;
+        }
+        return 0;
+    }
+
+    // A successful login clears the email key; the IP key keeps counting
+    public void onSuccess(String email) {
+        if (enabled) {
+            String key = "e:" + normalize(email);
+            synchronized (lockFor(key)) {
+                windows.remove(key);
+            }
+        }
+    }
+
+    private long acquire(String key, int maxAttempts, long now) {
+        long slot = now / bucketMillis;
+        synchronized (lockFor(key)) {
+            Window window = windows.computeIfAbsent(key, k -> new Window(buckets));
+            if (window.blockedUntil > now) {
+                return secondsUntil(window.blockedUntil, now);
+            }
+            decay(window, now);
+            if (window.count(slot) >= maxAttempts) {
+                window.strikes = Math.min(window.strikes + 1, 30);
+                window.blockedUntil = now + backoff(window.strikes);
+                window.decayedAt = window.blockedUntil;
+                window.lastSeen = now;
+                return secondsUntil(window.blockedUntil, now);
+            }
+            window.add(slot);
+            window.lastSeen = now;
+            return 0;
+        }
+    }
+
+    // Drops one strike per quiet period since the last block ended (or the last decay)
+    private void decay(Window window, long now) {
+        while (window.strikes > 0) {
+            long period = Math.max(windowMillis, backoff(window.strikes));
+            if (now - window.decayedAt < period) {
+                return;
+            }
+            window.decayedAt += period;
+            window.strikes--;
+        }
+    }
+
+    private long backoff(int strikes) {
+        return Math.min(maxBackoffMillis, baseBackoffMillis << (strikes - 1));
+    }
+
+    // Each key is checked under its stripe's lock, so an attempt in progress never
+    // updates a window that is being removed
+    private void sweepIfNeeded(long now) {
+        long attempts = attemptsSinceSweep.incrementAndGet();
+        boolean due = attempts % 10_000 == 0 || (windows.size() >= maxTrackedKeys && attempts % 1_000 == 0);
+        if (!due) {
+            return;
+        }
+        long idleCutoff = now - windowMillis;
+        for (String key : windows.keySet()) {
+            synchronized (lockFor(key)) {
+                Window window = windows.get(key);
+                if (window != null && window.blockedUntil <= now && window.lastSeen < idleCutoff
+                        && window.blockedUntil + maxBackoffMillis < now) {
+                    windows.remove(key);
+                }
+            }
+        }
+    }
+
+    private Object lockFor(String key) {
+        return locks[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private static long secondsUntil(long until, long now) {
+        return Math.max(1, (until - now + 999) / 1000);
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Ring of per-bucket counts; a bucket is reused once its slot falls out of the window
+    private static final class Window {
+        private final int[] counts;
+        private final long[] slots;
+        private long blockedUntil;
+        private long lastSeen;
+        private int strikes;
+        // Start of the current quiet period for strike decay
+        private long decayedAt;
+
+        private Window(int buckets) {
+            this.counts = new int[buckets];
+            this.slots = new long[buckets];
+        }
+
+        private int count(long slot) {
+            int total = 0;
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] > slot - slots.length) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        private void add(long slot) {
+            int index = (int) (slot % slots.length);
+            if (slots[index] != slot) {
+                slots[index] = slot;
+                counts[index] = 0;
+            }
+            counts[index]++;
+        }
+    }
+}